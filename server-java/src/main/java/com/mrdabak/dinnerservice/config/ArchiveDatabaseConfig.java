@@ -0,0 +1,90 @@
+package com.mrdabak.dinnerservice.config;
+
+import com.mrdabak.dinnerservice.model.ArchivedOrder;
+import com.mrdabak.dinnerservice.model.ArchivedOrderItem;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+import jakarta.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteDataSource;
+
+/**
+ * 보관 주문 DB (orders-archive.db) - 종료된 오래된 주문을 orders.db에서 옮겨 두는 곳
+ */
+@Configuration
+@EnableTransactionManagement
+@EnableJpaRepositories(
+    basePackages = "com.mrdabak.dinnerservice.repository.archive",
+    entityManagerFactoryRef = "archiveEntityManagerFactory",
+    transactionManagerRef = "archiveTransactionManager"
+)
+public class ArchiveDatabaseConfig {
+
+    @Bean(name = "archiveDataSource")
+    @DependsOn("singleInstanceLock")
+    public DataSource archiveDataSource() {
+        // Ensure data directory exists
+        ensureDataDirectory();
+
+        SQLiteConfig config = new SQLiteConfig();
+        config.setJournalMode(SQLiteConfig.JournalMode.WAL);
+        config.setBusyTimeout(60_000);
+        config.setSynchronous(SQLiteConfig.SynchronousMode.NORMAL);
+        SQLiteDataSource dataSource = new SQLiteDataSource(config);
+        dataSource.setUrl("jdbc:sqlite:data/orders-archive.db?journal_mode=WAL&busy_timeout=60000");
+        return dataSource;
+    }
+
+    private void ensureDataDirectory() {
+        java.io.File dataDir = new java.io.File("data");
+        if (!dataDir.exists()) {
+            boolean created = dataDir.mkdirs();
+            if (created) {
+                System.out.println("[ArchiveDatabaseConfig] Created data directory");
+            } else {
+                System.err.println("[ArchiveDatabaseConfig] Failed to create data directory");
+            }
+        }
+    }
+
+    @Bean(name = "archiveEntityManagerFactory")
+    public LocalContainerEntityManagerFactoryBean archiveEntityManagerFactory(
+            EntityManagerFactoryBuilder builder,
+            @Qualifier("archiveDataSource") DataSource dataSource) {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("hibernate.dialect", "org.hibernate.community.dialect.SQLiteDialect");
+        properties.put("hibernate.hbm2ddl.auto", "update");
+        properties.put("hibernate.show_sql", "false");
+        properties.put("hibernate.format_sql", "true");
+        properties.put("hibernate.id.new_generator_mappings", "false");
+        properties.put("hibernate.jdbc.use_get_generated_keys", "false");
+        // 보관은 묶음 단위로 옮기므로 INSERT를 JDBC 배치로
+        properties.put("hibernate.jdbc.batch_size", "50");
+        properties.put("hibernate.order_inserts", "true");
+
+        return builder
+            .dataSource(dataSource)
+            .packages(ArchivedOrder.class, ArchivedOrderItem.class)
+            .persistenceUnit("archive")
+            .properties(properties)
+            .build();
+    }
+
+    @Bean(name = "archiveTransactionManager")
+    public PlatformTransactionManager archiveTransactionManager(
+            @Qualifier("archiveEntityManagerFactory") EntityManagerFactory entityManagerFactory) {
+        return new JpaTransactionManager(entityManagerFactory);
+    }
+}
@@ -4,6 +4,7 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
 import org.springframework.context.annotation.Primary;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.orm.jpa.JpaTransactionManager;
@@ -34,6 +35,10 @@ import org.sqlite.SQLiteDataSource;
         @org.springframework.context.annotation.ComponentScan.Filter(
             type = org.springframework.context.annotation.FilterType.REGEX,
             pattern = ".*\\.inventory\\..*"
+        ),
+        @org.springframework.context.annotation.ComponentScan.Filter(
+            type = org.springframework.context.annotation.FilterType.REGEX,
+            pattern = ".*\\.archive\\..*"
         )
     },
     entityManagerFactoryRef = "entityManagerFactory",
@@ -42,6 +47,7 @@ import org.sqlite.SQLiteDataSource;
 public class MainDatabaseConfig {
 
     @Bean(name = "dataSource")
+    @DependsOn("singleInstanceLock")
     @Primary
     public DataSource dataSource() {
         // Ensure data directory exists
@@ -2,10 +2,14 @@ package com.mrdabak.dinnerservice.config;
 
 import com.mrdabak.dinnerservice.model.Order;
 import com.mrdabak.dinnerservice.model.OrderItem;
+import com.mrdabak.dinnerservice.model.OrderOutboxEvent;
+import com.mrdabak.dinnerservice.model.OrderRequestKey;
+import com.mrdabak.dinnerservice.model.UserOrderStats;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
@@ -29,6 +33,7 @@ import org.sqlite.SQLiteDataSource;
 public class OrderDatabaseConfig {
 
     @Bean(name = "orderDataSource")
+    @DependsOn("singleInstanceLock")
     public DataSource orderDataSource() {
         // Ensure data directory exists
         ensureDataDirectory();
@@ -66,10 +71,14 @@ public class OrderDatabaseConfig {
         properties.put("hibernate.format_sql", "true");
         properties.put("hibernate.id.new_generator_mappings", "false");
         properties.put("hibernate.jdbc.use_get_generated_keys", "false");
+        // AUTO ID는 SQLite에서 *_SEQ 테이블 기반 pooled(50) 할당이므로 INSERT를 JDBC 배치로 묶을 수 있음
+        properties.put("hibernate.jdbc.batch_size", "50");
+        properties.put("hibernate.order_inserts", "true");
+        properties.put("hibernate.order_updates", "true");
 
         return builder
             .dataSource(dataSource)
-            .packages(Order.class, OrderItem.class)
+            .packages(Order.class, OrderItem.class, OrderRequestKey.class, UserOrderStats.class, OrderOutboxEvent.class)
             .persistenceUnit("order")
             .properties(properties)
             .build();
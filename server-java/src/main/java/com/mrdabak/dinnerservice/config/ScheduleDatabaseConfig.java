@@ -6,6 +6,7 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
@@ -29,6 +30,7 @@ import org.sqlite.SQLiteDataSource;
 public class ScheduleDatabaseConfig {
 
     @Bean(name = "scheduleDataSource")
+    @DependsOn("singleInstanceLock")
     public DataSource scheduleDataSource() {
         // Ensure data directory exists
         ensureDataDirectory();
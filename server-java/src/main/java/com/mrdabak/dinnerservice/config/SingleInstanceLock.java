@@ -0,0 +1,54 @@
+package com.mrdabak.dinnerservice.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 단일 인스턴스 실행 강제 (data/.instance.lock 파일 잠금)
+ * 주문 읽기 모델, 주문 목록 ETag(OrderChangeLog), 재고 예약 장부(ReservationLedger), 주문 접수 게이트 등은
+ * 이 프로세스가 커밋한 변경만 메모리에서 추적하므로, 같은 data 디렉터리를 두 서버가 함께 쓰면 서로의 변경을 보지 못한다.
+ * 시작 시 잠금을 잡지 못하면 (다른 인스턴스가 실행 중) DB를 열기 전에 시작을 중단한다.
+ */
+@Component("singleInstanceLock")
+public class SingleInstanceLock {
+
+    private static final File LOCK_FILE = new File("data", ".instance.lock");
+
+    private FileChannel channel;
+    private FileLock lock;
+
+    @PostConstruct
+    public void acquire() throws IOException {
+        LOCK_FILE.getParentFile().mkdirs();
+        channel = FileChannel.open(LOCK_FILE.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) {
+            channel.close();
+            throw new IllegalStateException("다른 서버 인스턴스가 같은 데이터 디렉터리를 사용 중입니다: "
+                    + LOCK_FILE.getAbsolutePath() + " (이 서버는 단일 인스턴스로만 실행할 수 있습니다)");
+        }
+        System.out.println("[SingleInstanceLock] 인스턴스 잠금 획득: " + LOCK_FILE.getAbsolutePath());
+    }
+
+    @PreDestroy
+    public void release() throws IOException {
+        if (lock != null) {
+            lock.release();
+        }
+        if (channel != null) {
+            channel.close();
+        }
+    }
+}
@@ -5,23 +5,24 @@ import com.mrdabak.dinnerservice.dto.AuthResponse;
 import com.mrdabak.dinnerservice.dto.UserDto;
 import com.mrdabak.dinnerservice.model.User;
 import com.mrdabak.dinnerservice.model.Order;
-import com.mrdabak.dinnerservice.model.OrderItem;
-import com.mrdabak.dinnerservice.model.DinnerType;
-import com.mrdabak.dinnerservice.model.MenuItem;
+import com.mrdabak.dinnerservice.model.OrderChangeLog;
 import com.mrdabak.dinnerservice.repository.UserRepository;
 import com.mrdabak.dinnerservice.repository.order.OrderRepository;
-import com.mrdabak.dinnerservice.repository.order.OrderItemRepository;
-import com.mrdabak.dinnerservice.repository.DinnerTypeRepository;
-import com.mrdabak.dinnerservice.repository.MenuItemRepository;
 import com.mrdabak.dinnerservice.service.JwtService;
 import com.mrdabak.dinnerservice.service.DeliverySchedulingService;
+import com.mrdabak.dinnerservice.service.DeliveryTimeParser;
 import com.mrdabak.dinnerservice.service.TravelTimeEstimator;
+import com.mrdabak.dinnerservice.service.OrderEventBus;
+import com.mrdabak.dinnerservice.service.OrderReadModel;
 import com.mrdabak.dinnerservice.service.OrderService;
+import com.mrdabak.dinnerservice.service.OrderStatusMachine;
+import com.mrdabak.dinnerservice.service.SqliteRetryPolicy;
 import com.mrdabak.dinnerservice.model.DeliverySchedule;
 import com.mrdabak.dinnerservice.repository.schedule.DeliveryScheduleRepository;
 import com.mrdabak.dinnerservice.repository.schedule.EmployeeWorkAssignmentRepository;
 import com.mrdabak.dinnerservice.model.EmployeeWorkAssignment;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -47,9 +48,9 @@ public class AdminController {
     private final EmployeeWorkAssignmentRepository employeeWorkAssignmentRepository;
     private final TravelTimeEstimator travelTimeEstimator;
     private final OrderService orderService;
-    private final OrderItemRepository orderItemRepository;
-    private final DinnerTypeRepository dinnerTypeRepository;
-    private final MenuItemRepository menuItemRepository;
+    private final OrderReadModel orderReadModel;
+    private final OrderEventBus orderEventBus;
+    private final SqliteRetryPolicy sqliteRetryPolicy;
 
     public AdminController(UserRepository userRepository, PasswordEncoder passwordEncoder, 
                           JwtService jwtService, OrderRepository orderRepository,
@@ -58,9 +59,9 @@ public class AdminController {
                           EmployeeWorkAssignmentRepository employeeWorkAssignmentRepository,
                           TravelTimeEstimator travelTimeEstimator,
                           OrderService orderService,
-                          OrderItemRepository orderItemRepository,
-                          DinnerTypeRepository dinnerTypeRepository,
-                          MenuItemRepository menuItemRepository) {
+                          OrderReadModel orderReadModel,
+                          OrderEventBus orderEventBus,
+                          SqliteRetryPolicy sqliteRetryPolicy) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtService = jwtService;
@@ -70,9 +71,9 @@ public class AdminController {
         this.employeeWorkAssignmentRepository = employeeWorkAssignmentRepository;
         this.travelTimeEstimator = travelTimeEstimator;
         this.orderService = orderService;
-        this.orderItemRepository = orderItemRepository;
-        this.dinnerTypeRepository = dinnerTypeRepository;
-        this.menuItemRepository = menuItemRepository;
+        this.orderReadModel = orderReadModel;
+        this.orderEventBus = orderEventBus;
+        this.sqliteRetryPolicy = sqliteRetryPolicy;
     }
 
     @PostMapping("/create-employee")
@@ -105,32 +106,21 @@ public class AdminController {
     }
 
     @GetMapping("/users")
-    public ResponseEntity<?> getAllUsers() {
-        return ResponseEntity.ok(userRepository.findAll().stream()
-                .map(user -> {
-                    UserDto dto = new UserDto(user.getId(), user.getEmail(), user.getName(),
-                            user.getAddress(), user.getPhone(), user.getRole(), user.getApprovalStatus());
-                    if (user.getEmployeeType() != null) {
-                        dto.setEmployeeType(user.getEmployeeType());
-                    }
-                    return dto;
-                })
-                .toList());
+    public ResponseEntity<?> getAllUsers(@RequestParam(required = false) String role,
+                                         @RequestParam(required = false) String approvalStatus,
+                                         @RequestParam(required = false) Integer limit,
+                                         @RequestParam(required = false) Long cursor) {
+        List<User> users = userRepository.findPage(KeysetPagination.after(cursor), emptyToNull(role),
+                emptyToNull(approvalStatus), KeysetPagination.pageable(limit));
+        return KeysetPagination.respond(users, limit, User::getId, this::toUserDto);
     }
 
     @GetMapping("/employees")
-    public ResponseEntity<?> getEmployees() {
-        return ResponseEntity.ok(userRepository.findAll().stream()
-                .filter(user -> "employee".equals(user.getRole()))
-                .map(user -> {
-                    UserDto dto = new UserDto(user.getId(), user.getEmail(), user.getName(),
-                            user.getAddress(), user.getPhone(), user.getRole(), user.getApprovalStatus());
-                    if (user.getEmployeeType() != null) {
-                        dto.setEmployeeType(user.getEmployeeType());
-                    }
-                    return dto;
-                })
-                .toList());
+    public ResponseEntity<?> getEmployees(@RequestParam(required = false) Integer limit,
+                                          @RequestParam(required = false) Long cursor) {
+        List<User> employees = userRepository.findPage(KeysetPagination.after(cursor), "employee", null,
+                KeysetPagination.pageable(limit));
+        return KeysetPagination.respond(employees, limit, User::getId, this::toUserDto);
     }
     
     @PatchMapping("/employees/{employeeId}/type")
@@ -169,29 +159,29 @@ public class AdminController {
     }
 
     @GetMapping("/customers")
-    public ResponseEntity<?> getCustomers() {
-        return ResponseEntity.ok(userRepository.findAll().stream()
-                .filter(user -> "customer".equals(user.getRole()))
-                .map(user -> new UserDto(user.getId(), user.getEmail(), user.getName(),
-                        user.getAddress(), user.getPhone(), user.getRole(), user.getApprovalStatus()))
-                .toList());
+    public ResponseEntity<?> getCustomers(@RequestParam(required = false) Integer limit,
+                                          @RequestParam(required = false) Long cursor) {
+        List<User> customers = userRepository.findPage(KeysetPagination.after(cursor), "customer", null,
+                KeysetPagination.pageable(limit));
+        return KeysetPagination.respond(customers, limit, User::getId, user -> new UserDto(user.getId(), user.getEmail(), user.getName(),
+                user.getAddress(), user.getPhone(), user.getRole(), user.getApprovalStatus()));
     }
 
     @GetMapping("/pending-approvals")
-    public ResponseEntity<?> getPendingApprovals() {
-        return ResponseEntity.ok(userRepository.findAll().stream()
-                .filter(user -> "pending".equals(user.getApprovalStatus()))
-                .map(user -> Map.of(
-                        "id", user.getId(),
-                        "email", user.getEmail(),
-                        "name", user.getName(),
-                        "phone", user.getPhone(),
-                        "address", user.getAddress(),
-                        "role", user.getRole(),
-                        "approvalStatus", user.getApprovalStatus(),
-                        "createdAt", user.getCreatedAt() != null ? user.getCreatedAt().toString() : ""
-                ))
-                .toList());
+    public ResponseEntity<?> getPendingApprovals(@RequestParam(required = false) Integer limit,
+                                                 @RequestParam(required = false) Long cursor) {
+        List<User> pendingUsers = userRepository.findPage(KeysetPagination.after(cursor), null, "pending",
+                KeysetPagination.pageable(limit));
+        return KeysetPagination.respond(pendingUsers, limit, User::getId, user -> Map.of(
+                "id", user.getId(),
+                "email", user.getEmail(),
+                "name", user.getName(),
+                "phone", user.getPhone(),
+                "address", user.getAddress(),
+                "role", user.getRole(),
+                "approvalStatus", user.getApprovalStatus(),
+                "createdAt", user.getCreatedAt() != null ? user.getCreatedAt().toString() : ""
+        ));
     }
 
     @PostMapping("/approve-user/{userId}")
@@ -291,41 +281,24 @@ public class AdminController {
             if (existingSchedule.isPresent() && 
                 order.getDeliveryEmployeeId() != null && 
                 !order.getDeliveryEmployeeId().equals(deliveryEmployeeId)) {
-                deliverySchedulingService.releaseAssignmentForOrder(orderId);
+                sqliteRetryPolicy.run("schedule.release", () -> deliverySchedulingService.releaseAssignmentForOrder(orderId));
                 existingSchedule = java.util.Optional.empty();
             }
             
-            order.setCookingEmployeeId(cookingEmployeeId);
-            order.setDeliveryEmployeeId(deliveryEmployeeId);
-            orderRepository.save(order);
+            // 담당 직원 열만 UPDATE - 전체 엔티티 저장은 동시에 바뀐 상태를 이전 값으로 덮어씀
+            orderRepository.updateAssignedEmployees(orderId, cookingEmployeeId, deliveryEmployeeId);
+            OrderChangeLog.markChanged(orderId, order.getUserId());
             
             // 배달 직원이 배당되면 DeliverySchedule 생성 또는 업데이트
             if (deliveryEmployeeId != null && order.getDeliveryTime() != null && order.getDeliveryAddress() != null) {
                 try {
                     System.out.println("[AdminController] 배달 스케줄 생성 시작 - 주문 ID: " + orderId + ", 배달 시간: " + order.getDeliveryTime());
                     
-                    // deliveryTime 파싱 (OrderService와 동일한 로직 사용)
-                    java.time.LocalDateTime deliveryDateTime = null;
-                    java.time.format.DateTimeFormatter[] formatters = {
-                        java.time.format.DateTimeFormatter.ISO_LOCAL_DATE_TIME,  // "2025-11-21T10:00:00"
-                        java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm")  // "2025-11-21T10:00"
-                    };
-                    
-                    boolean parsed = false;
-                    for (java.time.format.DateTimeFormatter formatter : formatters) {
-                        try {
-                            deliveryDateTime = java.time.LocalDateTime.parse(order.getDeliveryTime(), formatter);
-                            parsed = true;
-                            System.out.println("[AdminController] 배달 시간 파싱 성공: " + deliveryDateTime);
-                            break;
-                        } catch (java.time.format.DateTimeParseException e) {
-                            // 다음 포맷 시도
-                        }
-                    }
-                    
-                    if (!parsed || deliveryDateTime == null) {
-                        throw new RuntimeException("잘못된 배달 시간 형식입니다: " + order.getDeliveryTime());
-                    }
+                    // 주문 저장 시 파싱해 둔 배달 시간 사용 (이전 주문은 문자열에서 파싱)
+                    java.time.LocalDateTime deliveryDateTime = order.getDeliveryAt() != null
+                            ? order.getDeliveryAt()
+                            : DeliveryTimeParser.tryParse(order.getDeliveryTime())
+                                    .orElseThrow(() -> new RuntimeException("잘못된 배달 시간 형식입니다: " + order.getDeliveryTime()));
                     
                     // TravelTimeEstimator를 사용하여 소요 시간 계산
                     int oneWayMinutes = travelTimeEstimator.estimateOneWayMinutes(order.getDeliveryAddress(), deliveryDateTime);
@@ -363,7 +336,7 @@ public class AdminController {
                         System.out.println("[AdminController] 새 배달 스케줄 생성: 주문 ID " + orderId + ", 직원 ID " + deliveryEmployeeId);
                     }
                     
-                    DeliverySchedule savedSchedule = deliveryScheduleRepository.save(schedule);
+                    DeliverySchedule savedSchedule = sqliteRetryPolicy.execute("schedule.assign", () -> deliveryScheduleRepository.save(schedule));
                     System.out.println("[AdminController] 배달 스케줄 저장 완료: 스케줄 ID " + savedSchedule.getId());
                 } catch (Exception e) {
                     // 스케줄 생성 실패는 경고만 하고 배당은 성공으로 처리
@@ -373,7 +346,7 @@ public class AdminController {
                 }
             } else if (deliveryEmployeeId == null && existingSchedule.isPresent()) {
                 // 배달 직원 배당이 해제되면 스케줄 삭제
-                deliverySchedulingService.releaseAssignmentForOrder(orderId);
+                sqliteRetryPolicy.run("schedule.release", () -> deliverySchedulingService.releaseAssignmentForOrder(orderId));
                 System.out.println("[AdminController] 배달 직원 배당 해제로 인한 스케줄 삭제: 주문 ID " + orderId);
             }
             
@@ -427,8 +400,12 @@ public class AdminController {
                         "order_id", order.getId()
                 ));
             }
-            order.setAdminApprovalStatus("APPROVED");
-            orderRepository.save(order);
+            // 승인 상태 열만 UPDATE - 그 사이 취소/배달 완료된 주문은 승인하지 않음
+            if (orderRepository.updateAdminApprovalStatusIfStatusIn(orderId, "APPROVED", OrderStatusMachine.OPEN_STATUSES) == 0) {
+                return ResponseEntity.badRequest().body(Map.of("error", "다른 요청이 주문 상태를 먼저 변경했습니다. 다시 시도해주세요."));
+            }
+            OrderChangeLog.markChanged(orderId, order.getUserId());
+            orderEventBus.publishApproval(order.getId(), order.getUserId(), order.getStatus(), "APPROVED");
             return ResponseEntity.ok(Map.of(
                     "message", "주문이 승인되었습니다.",
                     "order_id", order.getId()
@@ -453,7 +430,10 @@ public class AdminController {
             Long adminId = Long.parseLong(authentication.getName());
             Order cancelledOrder = orderService.cancelOrder(orderId, adminId);
             cancelledOrder.setAdminApprovalStatus("REJECTED");
-            orderRepository.save(cancelledOrder);
+            orderRepository.updateAdminApprovalStatusIfStatusIn(orderId, "REJECTED", List.of(OrderStatusMachine.CANCELLED));
+            OrderChangeLog.markChanged(orderId, cancelledOrder.getUserId());
+            orderEventBus.publishApproval(cancelledOrder.getId(), cancelledOrder.getUserId(),
+                    cancelledOrder.getStatus(), "REJECTED");
             String reason = requestBody != null ? requestBody.getOrDefault("reason", "") : "";
             return ResponseEntity.ok(Map.of(
                     "message", "주문이 반려되었습니다.",
@@ -568,46 +548,31 @@ public class AdminController {
                 throw new RuntimeException("User not found");
             }
             
-            // Get orders for this user
-            List<Order> orders = orderRepository.findByUserIdOrderByCreatedAtDesc(userId);
+            // Get orders for this user (조립된 읽기 모델에서)
+            List<OrderReadModel.OrderView> orders = orderReadModel.ordersForUser(userId);
             
             // Convert to DTOs with order items
             List<Map<String, Object>> orderDtos = orders.stream().map(order -> {
                 Map<String, Object> orderMap = new HashMap<>();
-                orderMap.put("id", order.getId());
-                orderMap.put("user_id", order.getUserId());
-                orderMap.put("dinner_type_id", order.getDinnerTypeId());
-                orderMap.put("serving_style", order.getServingStyle());
-                orderMap.put("delivery_time", order.getDeliveryTime());
-                orderMap.put("delivery_address", order.getDeliveryAddress());
-                orderMap.put("total_price", order.getTotalPrice());
-                orderMap.put("status", order.getStatus());
-                orderMap.put("payment_status", order.getPaymentStatus());
-                orderMap.put("created_at", order.getCreatedAt());
+                orderMap.put("id", order.id());
+                orderMap.put("user_id", order.userId());
+                orderMap.put("dinner_type_id", order.dinnerTypeId());
+                orderMap.put("serving_style", order.servingStyle());
+                orderMap.put("delivery_time", order.deliveryTime());
+                orderMap.put("delivery_address", order.deliveryAddress());
+                orderMap.put("total_price", order.totalPrice());
+                orderMap.put("status", order.status());
+                orderMap.put("payment_status", order.paymentStatus());
+                orderMap.put("created_at", order.createdAt());
                 
                 // Add dinner type information
-                DinnerType dinner = dinnerTypeRepository.findById(order.getDinnerTypeId()).orElse(null);
-                if (dinner != null) {
-                    orderMap.put("dinner_name", dinner.getName());
-                    orderMap.put("dinner_name_en", dinner.getNameEn());
+                if (order.dinnerName() != null) {
+                    orderMap.put("dinner_name", order.dinnerName());
+                    orderMap.put("dinner_name_en", order.dinnerNameEn());
                 }
                 
                 // Add order items
-                List<OrderItem> items = orderItemRepository.findByOrderId(order.getId());
-                List<Map<String, Object>> itemDtos = items.stream().map(item -> {
-                    MenuItem menuItem = menuItemRepository.findById(item.getMenuItemId()).orElse(null);
-                    Map<String, Object> itemMap = new HashMap<>();
-                    itemMap.put("id", item.getId());
-                    itemMap.put("menu_item_id", item.getMenuItemId());
-                    itemMap.put("quantity", item.getQuantity());
-                    if (menuItem != null) {
-                        itemMap.put("name", menuItem.getName());
-                        itemMap.put("name_en", menuItem.getNameEn());
-                        itemMap.put("price", menuItem.getPrice());
-                    }
-                    return itemMap;
-                }).toList();
-                orderMap.put("items", itemDtos);
+                orderMap.put("items", order.items());
                 
                 return orderMap;
             }).toList();
@@ -623,58 +588,61 @@ public class AdminController {
 
 
     @GetMapping("/orders/pending")
-    public ResponseEntity<?> getPendingOrders() {
+    public ResponseEntity<?> getPendingOrders(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) java.time.LocalDate date,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Long cursor) {
         try {
-            List<Order> pendingOrders = orderRepository.findAll().stream()
-                    .filter(order -> "PENDING".equalsIgnoreCase(order.getAdminApprovalStatus()))
-                    .collect(java.util.stream.Collectors.toList());
+            List<OrderReadModel.OrderView> pendingOrders = orderReadModel.page(KeysetPagination.after(cursor),
+                    KeysetPagination.fetchSize(limit), order -> "PENDING".equalsIgnoreCase(order.adminApprovalStatus())
+                            && (date == null || (order.deliveryAt() != null && date.equals(order.deliveryAt().toLocalDate()))));
             
-            List<Map<String, Object>> orderDtos = pendingOrders.stream().map(order -> {
+            return KeysetPagination.respond(pendingOrders, limit, OrderReadModel.OrderView::id, order -> {
                 Map<String, Object> orderMap = new HashMap<>();
-                orderMap.put("id", order.getId());
-                orderMap.put("user_id", order.getUserId());
-                orderMap.put("dinner_type_id", order.getDinnerTypeId());
-                orderMap.put("serving_style", order.getServingStyle());
-                orderMap.put("delivery_time", order.getDeliveryTime());
-                orderMap.put("delivery_address", order.getDeliveryAddress());
-                orderMap.put("total_price", order.getTotalPrice());
-                orderMap.put("status", order.getStatus());
-                orderMap.put("payment_status", order.getPaymentStatus());
-                orderMap.put("admin_approval_status", order.getAdminApprovalStatus());
-                orderMap.put("created_at", order.getCreatedAt());
+                orderMap.put("id", order.id());
+                orderMap.put("user_id", order.userId());
+                orderMap.put("dinner_type_id", order.dinnerTypeId());
+                orderMap.put("serving_style", order.servingStyle());
+                orderMap.put("delivery_time", order.deliveryTime());
+                orderMap.put("delivery_address", order.deliveryAddress());
+                orderMap.put("total_price", order.totalPrice());
+                orderMap.put("status", order.status());
+                orderMap.put("payment_status", order.paymentStatus());
+                orderMap.put("admin_approval_status", order.adminApprovalStatus());
+                orderMap.put("created_at", order.createdAt());
                 
                 // Add user info
-                User user = userRepository.findById(order.getUserId()).orElse(null);
-                if (user != null) {
-                    orderMap.put("user_name", user.getName());
-                    orderMap.put("user_email", user.getEmail());
-                    orderMap.put("user_phone", user.getPhone());
+                if (order.customerName() != null) {
+                    orderMap.put("user_name", order.customerName());
+                    orderMap.put("user_email", order.customerEmail());
+                    orderMap.put("user_phone", order.customerPhone());
                 }
                 
                 // Add order items
-                List<OrderItem> items = orderItemRepository.findByOrderId(order.getId());
-                List<Map<String, Object>> itemDtos = items.stream().map(item -> {
-                    MenuItem menuItem = menuItemRepository.findById(item.getMenuItemId()).orElse(null);
-                    Map<String, Object> itemMap = new HashMap<>();
-                    itemMap.put("id", item.getId());
-                    itemMap.put("menu_item_id", item.getMenuItemId());
-                    itemMap.put("quantity", item.getQuantity());
-                    if (menuItem != null) {
-                        itemMap.put("name", menuItem.getName());
-                        itemMap.put("name_en", menuItem.getNameEn());
-                        itemMap.put("price", menuItem.getPrice());
-                    }
-                    return itemMap;
-                }).toList();
-                orderMap.put("items", itemDtos);
+                orderMap.put("items", order.items());
                 
                 return orderMap;
-            }).toList();
-            
-            return ResponseEntity.ok(orderDtos);
+            });
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of("error", "Failed to fetch pending orders: " + e.getMessage()));
         }
     }
-}
 
+    @GetMapping("/metrics/sqlite-retry")
+    public ResponseEntity<?> getSqliteRetryMetrics() {
+        return ResponseEntity.ok(sqliteRetryPolicy.snapshot());
+    }
+
+    private UserDto toUserDto(User user) {
+        UserDto dto = new UserDto(user.getId(), user.getEmail(), user.getName(),
+                user.getAddress(), user.getPhone(), user.getRole(), user.getApprovalStatus());
+        if (user.getEmployeeType() != null) {
+            dto.setEmployeeType(user.getEmployeeType());
+        }
+        return dto;
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+}
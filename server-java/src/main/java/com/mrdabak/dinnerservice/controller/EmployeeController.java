@@ -3,12 +3,17 @@ package com.mrdabak.dinnerservice.controller;
 import com.mrdabak.dinnerservice.model.*;
 import com.mrdabak.dinnerservice.repository.*;
 import com.mrdabak.dinnerservice.repository.order.OrderRepository;
-import com.mrdabak.dinnerservice.repository.order.OrderItemRepository;
 import com.mrdabak.dinnerservice.repository.schedule.EmployeeWorkAssignmentRepository;
 import com.mrdabak.dinnerservice.model.EmployeeWorkAssignment;
 import com.mrdabak.dinnerservice.service.DeliverySchedulingService;
+import com.mrdabak.dinnerservice.service.DeliveryTimeParser;
+import com.mrdabak.dinnerservice.service.OrderEventBus;
+import com.mrdabak.dinnerservice.service.OrderReadModel;
 import com.mrdabak.dinnerservice.service.OrderService;
 import com.mrdabak.dinnerservice.service.InventoryService;
+import com.mrdabak.dinnerservice.service.SqliteRetryPolicy;
+import com.mrdabak.dinnerservice.service.OrderStatusMachine;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -17,50 +22,64 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/employee")
 @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
 public class EmployeeController {
 
+    // 주방 화면에 보이는 주문 상태 (배달 출발 이후는 주방 작업이 끝난 것으로 봄)
+    private static final Set<String> KITCHEN_STATUSES = Set.of(
+            OrderStatusMachine.PENDING, OrderStatusMachine.COOKING, OrderStatusMachine.READY);
+
     private final OrderRepository orderRepository;
-    private final OrderItemRepository orderItemRepository;
     private final UserRepository userRepository;
-    private final DinnerTypeRepository dinnerTypeRepository;
-    private final MenuItemRepository menuItemRepository;
     private final DeliverySchedulingService deliverySchedulingService;
     private final OrderService orderService;
     private final InventoryService inventoryService;
     private final com.mrdabak.dinnerservice.repository.schedule.DeliveryScheduleRepository deliveryScheduleRepository;
     private final EmployeeWorkAssignmentRepository employeeWorkAssignmentRepository;
+    private final SqliteRetryPolicy sqliteRetryPolicy;
+    private final OrderStatusMachine orderStatusMachine;
+    private final OrderReadModel orderReadModel;
+    private final OrderEventBus orderEventBus;
 
-    public EmployeeController(OrderRepository orderRepository, OrderItemRepository orderItemRepository,
-                             UserRepository userRepository, DinnerTypeRepository dinnerTypeRepository,
-                             MenuItemRepository menuItemRepository,
+    public EmployeeController(OrderRepository orderRepository,
+                             UserRepository userRepository,
                              DeliverySchedulingService deliverySchedulingService,
                              OrderService orderService,
                              InventoryService inventoryService,
                              com.mrdabak.dinnerservice.repository.schedule.DeliveryScheduleRepository deliveryScheduleRepository,
-                             EmployeeWorkAssignmentRepository employeeWorkAssignmentRepository) {
+                             EmployeeWorkAssignmentRepository employeeWorkAssignmentRepository,
+                             SqliteRetryPolicy sqliteRetryPolicy,
+                             OrderStatusMachine orderStatusMachine,
+                             OrderReadModel orderReadModel,
+                             OrderEventBus orderEventBus) {
         this.orderRepository = orderRepository;
-        this.orderItemRepository = orderItemRepository;
         this.userRepository = userRepository;
-        this.dinnerTypeRepository = dinnerTypeRepository;
-        this.menuItemRepository = menuItemRepository;
         this.deliverySchedulingService = deliverySchedulingService;
         this.orderService = orderService;
         this.inventoryService = inventoryService;
         this.deliveryScheduleRepository = deliveryScheduleRepository;
         this.employeeWorkAssignmentRepository = employeeWorkAssignmentRepository;
+        this.sqliteRetryPolicy = sqliteRetryPolicy;
+        this.orderStatusMachine = orderStatusMachine;
+        this.orderReadModel = orderReadModel;
+        this.orderEventBus = orderEventBus;
     }
 
     @GetMapping("/orders")
     public ResponseEntity<List<Map<String, Object>>> getOrders(
             @RequestParam(required = false) String status,
+            @RequestParam(required = false) String approvalStatus,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Long cursor,
             Authentication authentication) {
         if (authentication == null || authentication.getAuthorities() == null) {
             return ResponseEntity.status(401).build();
@@ -68,83 +87,138 @@ public class EmployeeController {
         boolean isAdmin = authentication.getAuthorities().stream()
                 .anyMatch(auth -> "ROLE_ADMIN".equals(auth.getAuthority()));
 
-        // Get all orders (no date filtering)
-        List<Order> orders;
-        if (status != null && !status.isEmpty()) {
-            orders = orderRepository.findByStatus(status);
-        } else {
-            orders = orderRepository.findAll();
-        }
-
-        if (!isAdmin) {
-            orders = orders.stream()
-                    .filter(order -> "APPROVED".equalsIgnoreCase(order.getAdminApprovalStatus()))
-                    .toList();
-        }
+        // 조립된 읽기 모델을 cursor 이후부터 훑으며 필터 (limit이 없으면 전체)
+        List<OrderReadModel.OrderView> orders = orderReadModel.page(KeysetPagination.after(cursor),
+                KeysetPagination.fetchSize(limit), order ->
+                (status == null || status.isEmpty() || status.equals(order.status()))
+                        && (approvalStatus == null || approvalStatus.isEmpty()
+                            || approvalStatus.equalsIgnoreCase(order.adminApprovalStatus()))
+                        && (date == null || (order.deliveryAt() != null && date.equals(order.deliveryAt().toLocalDate())))
+                        && (isAdmin || "APPROVED".equalsIgnoreCase(order.adminApprovalStatus())));
 
-        List<Map<String, Object>> orderDtos = orders.stream().map(order -> {
+        return KeysetPagination.respond(orders, limit, OrderReadModel.OrderView::id, order -> {
             Map<String, Object> orderMap = new HashMap<>();
-            orderMap.put("id", order.getId());
-            orderMap.put("user_id", order.getUserId());
-            orderMap.put("dinner_type_id", order.getDinnerTypeId());
-            orderMap.put("serving_style", order.getServingStyle());
-            orderMap.put("delivery_time", order.getDeliveryTime());
-            orderMap.put("delivery_address", order.getDeliveryAddress());
-            orderMap.put("total_price", order.getTotalPrice());
-            orderMap.put("status", order.getStatus());
-            orderMap.put("payment_status", order.getPaymentStatus());
-            orderMap.put("created_at", order.getCreatedAt());
-            orderMap.put("cooking_employee_id", order.getCookingEmployeeId());
-            orderMap.put("delivery_employee_id", order.getDeliveryEmployeeId());
-            orderMap.put("admin_approval_status", order.getAdminApprovalStatus());
+            orderMap.put("id", order.id());
+            orderMap.put("user_id", order.userId());
+            orderMap.put("dinner_type_id", order.dinnerTypeId());
+            orderMap.put("serving_style", order.servingStyle());
+            orderMap.put("delivery_time", order.deliveryTime());
+            orderMap.put("delivery_address", order.deliveryAddress());
+            orderMap.put("total_price", order.totalPrice());
+            orderMap.put("status", order.status());
+            orderMap.put("payment_status", order.paymentStatus());
+            orderMap.put("created_at", order.createdAt());
+            orderMap.put("cooking_employee_id", order.cookingEmployeeId());
+            orderMap.put("delivery_employee_id", order.deliveryEmployeeId());
+            orderMap.put("admin_approval_status", order.adminApprovalStatus());
             
             // Add employee names if assigned
-            if (order.getCookingEmployeeId() != null) {
-                User cookingEmployee = userRepository.findById(order.getCookingEmployeeId()).orElse(null);
-                if (cookingEmployee != null) {
-                    orderMap.put("cooking_employee_name", cookingEmployee.getName());
-                }
+            if (order.cookingEmployeeName() != null) {
+                orderMap.put("cooking_employee_name", order.cookingEmployeeName());
             }
-            if (order.getDeliveryEmployeeId() != null) {
-                User deliveryEmployee = userRepository.findById(order.getDeliveryEmployeeId()).orElse(null);
-                if (deliveryEmployee != null) {
-                    orderMap.put("delivery_employee_name", deliveryEmployee.getName());
-                }
+            if (order.deliveryEmployeeName() != null) {
+                orderMap.put("delivery_employee_name", order.deliveryEmployeeName());
             }
 
             // Add customer information
-            User customer = userRepository.findById(order.getUserId()).orElse(null);
-            if (customer != null) {
-                orderMap.put("customer_name", customer.getName());
-                orderMap.put("customer_phone", customer.getPhone());
+            if (order.customerName() != null) {
+                orderMap.put("customer_name", order.customerName());
+                orderMap.put("customer_phone", order.customerPhone());
             }
 
             // Add dinner type information
-            DinnerType dinner = dinnerTypeRepository.findById(order.getDinnerTypeId()).orElse(null);
-            if (dinner != null) {
-                orderMap.put("dinner_name", dinner.getName());
-                orderMap.put("dinner_name_en", dinner.getNameEn());
+            if (order.dinnerName() != null) {
+                orderMap.put("dinner_name", order.dinnerName());
+                orderMap.put("dinner_name_en", order.dinnerNameEn());
             }
 
-            List<OrderItem> items = orderItemRepository.findByOrderId(order.getId());
-            List<Map<String, Object>> itemDtos = items.stream().map(item -> {
-                MenuItem menuItem = menuItemRepository.findById(item.getMenuItemId()).orElse(null);
-                Map<String, Object> itemMap = new HashMap<>();
-                itemMap.put("id", item.getId());
-                itemMap.put("menu_item_id", item.getMenuItemId());
-                itemMap.put("quantity", item.getQuantity());
-                if (menuItem != null) {
-                    itemMap.put("name", menuItem.getName());
-                    itemMap.put("name_en", menuItem.getNameEn());
-                    itemMap.put("price", menuItem.getPrice());
-                }
-                return itemMap;
-            }).toList();
-            orderMap.put("items", itemDtos);
+            orderMap.put("items", order.items());
             return orderMap;
-        }).toList();
+        });
+    }
+
+    /**
+     * 주문 상태 변경 이벤트 구독 (SSE) - 관리자는 전체, 직원은 승인된 주문만
+     */
+    @GetMapping(value = "/orders/events", produces = "text/event-stream")
+    public ResponseEntity<?> streamOrderEvents(Authentication authentication) {
+        if (authentication == null || authentication.getAuthorities() == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "인증이 필요합니다."));
+        }
+        boolean isAdmin = authentication.getAuthorities().stream()
+                .anyMatch(auth -> "ROLE_ADMIN".equals(auth.getAuthority()));
+        try {
+            return ResponseEntity.ok(orderEventBus.subscribeStaff(isAdmin));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(503).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * 주방 화면 피드 - 오늘 배달 예정인 승인된 주문 중 조리 전/조리 중/조리 완료 주문 (배달 시간 순)
+     * since 없이 호출하면 전체 목록(full=true)을, 이전 응답의 version을 since로 넘기면 그 이후 바뀐 주문만 돌려준다.
+     * 목록에서 빠져야 할 주문(취소/배달 출발/승인 취소 등)은 removed에 주문 ID로 담긴다.
+     * "오늘"이 조건에 들어가므로 커서는 날짜에 묶인다 - 응답의 day를 함께 넘겨야 하며,
+     * day가 없거나 오늘과 다르면(자정을 넘긴 경우) 변경분 대신 전체 목록을 돌려준다.
+     */
+    @GetMapping("/kitchen")
+    public ResponseEntity<?> getKitchenFeed(@RequestParam(required = false) Long since,
+                                            @RequestParam(required = false) String day,
+                                            Authentication authentication) {
+        if (authentication == null || authentication.getName() == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "인증이 필요합니다."));
+        }
+        try {
+            Long employeeId = Long.parseLong(authentication.getName());
+            boolean isAdmin = authentication.getAuthorities().stream()
+                    .anyMatch(auth -> "ROLE_ADMIN".equals(auth.getAuthority()));
+            LocalDate today = LocalDate.now();
+
+            // 오늘 조리 작업이 할당된 직원만 (관리자는 확인용으로 허용)
+            if (!isAdmin && employeeWorkAssignmentRepository.findByEmployeeIdAndWorkDate(employeeId, today).stream()
+                    .noneMatch(a -> "COOKING".equalsIgnoreCase(a.getTaskType()))) {
+                return ResponseEntity.status(403).body(Map.of("error", "오늘 조리 작업이 할당된 직원만 주방 화면을 볼 수 있습니다."));
+            }
+
+            // 다른 날짜의 커서로는 그 사이 날짜가 바뀌며 들어오고 나간 주문을 알 수 없으므로 전체 목록
+            boolean sameDay = day != null && today.toString().equals(day);
+            long sinceVersion = since != null && sameDay ? since : -1L;
+            OrderReadModel.Changes changes = orderReadModel.changesSince(sinceVersion, order ->
+                    "APPROVED".equalsIgnoreCase(order.adminApprovalStatus())
+                            && KITCHEN_STATUSES.contains(order.status())
+                            && order.deliveryAt() != null
+                            && today.equals(order.deliveryAt().toLocalDate()));
+
+            List<Map<String, Object>> orders = changes.changed().stream()
+                    .sorted(Comparator.comparing(OrderReadModel.OrderView::deliveryAt)
+                            .thenComparing(OrderReadModel.OrderView::id))
+                    .map(order -> {
+                        Map<String, Object> orderMap = new HashMap<>();
+                        orderMap.put("id", order.id());
+                        orderMap.put("dinner_type_id", order.dinnerTypeId());
+                        orderMap.put("dinner_name", order.dinnerName());
+                        orderMap.put("dinner_name_en", order.dinnerNameEn());
+                        orderMap.put("serving_style", order.servingStyle());
+                        orderMap.put("delivery_time", order.deliveryTime());
+                        orderMap.put("status", order.status());
+                        orderMap.put("cooking_employee_id", order.cookingEmployeeId());
+                        orderMap.put("cooking_employee_name", order.cookingEmployeeName());
+                        orderMap.put("items", order.items());
+                        return orderMap;
+                    }).toList();
 
-        return ResponseEntity.ok(orderDtos);
+            Map<String, Object> response = new HashMap<>();
+            response.put("day", today.toString());
+            response.put("version", changes.version());
+            response.put("full", changes.full());
+            response.put("orders", orders);
+            response.put("removed", changes.removed());
+            return ResponseEntity.ok(response);
+        } catch (NumberFormatException e) {
+            return ResponseEntity.status(401).body(Map.of("error", "유효하지 않은 사용자 ID입니다."));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of("error", "주방 화면 조회 중 오류가 발생했습니다: " + e.getMessage()));
+        }
     }
 
     @GetMapping("/delivery-schedule")
@@ -186,6 +260,11 @@ public class EmployeeController {
                 schedules = deliverySchedulingService.getSchedulesForUser(requesterId, isAdmin, targetDate);
             }
 
+            // 직원 정보는 한 번에 조회
+            Map<Long, User> employees = new HashMap<>();
+            userRepository.findAllById(schedules.stream().map(DeliverySchedule::getEmployeeId).distinct().toList())
+                    .forEach(user -> employees.put(user.getId(), user));
+
             List<Map<String, Object>> response = schedules.stream()
                     .map(schedule -> {
                         Map<String, Object> map = new HashMap<>();
@@ -198,11 +277,11 @@ public class EmployeeController {
                         map.put("return_time", schedule.getReturnTime());
                         map.put("one_way_minutes", schedule.getOneWayMinutes());
                         map.put("status", schedule.getStatus());
-                        userRepository.findById(schedule.getEmployeeId())
-                                .ifPresent(user -> {
-                                    map.put("employee_name", user.getName());
-                                    map.put("employee_phone", user.getPhone());
-                                });
+                        User user = employees.get(schedule.getEmployeeId());
+                        if (user != null) {
+                            map.put("employee_name", user.getName());
+                            map.put("employee_phone", user.getPhone());
+                        }
                         return map;
                     }).toList();
 
@@ -234,7 +313,8 @@ public class EmployeeController {
                 return ResponseEntity.badRequest().body(Map.of("error", "상태 값은 필수입니다."));
             }
 
-            DeliverySchedule updated = deliverySchedulingService.updateStatus(id, status, requesterId, isAdmin);
+            DeliverySchedule updated = sqliteRetryPolicy.execute("schedule.status",
+                    () -> deliverySchedulingService.updateStatus(id, status, requesterId, isAdmin));
             return ResponseEntity.ok(Map.of(
                     "id", updated.getId(),
                     "status", updated.getStatus()
@@ -271,7 +351,7 @@ public class EmployeeController {
             }
 
             status = status.trim().toLowerCase();
-            if (!List.of("pending", "cooking", "ready", "out_for_delivery", "delivered", "cancelled").contains(status)) {
+            if (!OrderStatusMachine.STATUSES.contains(status)) {
                 return ResponseEntity.badRequest().body(Map.of("error", "유효하지 않은 상태입니다. (pending, cooking, ready, out_for_delivery, delivered, cancelled 중 하나여야 합니다.)"));
             }
 
@@ -283,19 +363,14 @@ public class EmployeeController {
                 return ResponseEntity.status(403).body(Map.of("error", "관리자는 주문 상태를 변경할 수 없습니다. 할당받은 직원만 상태를 변경할 수 있습니다."));
             }
             
-            // 주문의 배달 시간에서 날짜 추출
-            LocalDate orderDate = null;
-            try {
-                LocalDateTime deliveryDateTime = LocalDateTime.parse(order.getDeliveryTime(), DateTimeFormatter.ISO_LOCAL_DATE_TIME);
-                orderDate = deliveryDateTime.toLocalDate();
-            } catch (Exception e) {
-                try {
-                    // 다른 형식 시도
-                    orderDate = LocalDate.parse(order.getDeliveryTime().split("T")[0]);
-                } catch (Exception e2) {
-                    return ResponseEntity.status(400).body(Map.of("error", "주문의 배달 시간 형식이 올바르지 않습니다."));
-                }
+            // 주문의 배달 시간에서 날짜 추출 (저장 시 파싱해 둔 값, 이전 주문은 문자열에서 파싱)
+            LocalDateTime deliveryDateTime = order.getDeliveryAt() != null
+                    ? order.getDeliveryAt()
+                    : DeliveryTimeParser.tryParse(order.getDeliveryTime()).orElse(null);
+            if (deliveryDateTime == null) {
+                return ResponseEntity.status(400).body(Map.of("error", "주문의 배달 시간 형식이 올바르지 않습니다."));
             }
+            LocalDate orderDate = deliveryDateTime.toLocalDate();
             
             // 해당 날짜에 관리자가 할당한 작업 확인
             List<EmployeeWorkAssignment> assignments = employeeWorkAssignmentRepository.findByEmployeeIdAndWorkDate(employeeId, orderDate);
@@ -317,27 +392,10 @@ public class EmployeeController {
                 }
             }
 
-            // Prevent invalid status transitions
-            if ("cancelled".equals(order.getStatus()) && !"cancelled".equals(status)) {
-                return ResponseEntity.badRequest().body(Map.of("error", "취소된 주문의 상태를 변경할 수 없습니다."));
-            }
-            if ("delivered".equals(order.getStatus()) && !"delivered".equals(status)) {
-                return ResponseEntity.badRequest().body(Map.of("error", "배달 완료된 주문의 상태를 변경할 수 없습니다."));
-            }
-
-            // If status is being changed to cooking, consume inventory (조리 시작 시 재고 소진)
-            if ("cooking".equals(status) && !"cooking".equals(order.getStatus())) {
-                try {
-                    inventoryService.consumeReservationsForOrder(id);
-                } catch (Exception e) {
-                    return ResponseEntity.status(500).body(Map.of("error", "재고 소진 처리 중 오류가 발생했습니다: " + e.getMessage()));
-                }
-            }
-            
-            // If status is being changed to delivered, consume inventory
+            // 배달 완료는 OrderService에서 처리 (상태 전이는 동일하게 compare-and-set)
             if ("delivered".equals(status) && !"delivered".equals(order.getStatus())) {
                 try {
-                    orderService.markOrderAsDelivered(id);
+                    sqliteRetryPolicy.run("orders.deliver", () -> orderService.markOrderAsDelivered(id));
                     return ResponseEntity.ok(Map.of("message", "주문이 배달 완료로 처리되었습니다."));
                 } catch (IllegalArgumentException e) {
                     return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
@@ -348,9 +406,26 @@ public class EmployeeController {
                 }
             }
 
-            // For other status changes, just update the status
-            order.setStatus(status);
-            orderRepository.save(order);
+            // 상태 변경은 UPDATE ... WHERE status IN (...) 한 문장으로 - 동시에 들어온 변경 중 하나만 성공
+            String targetStatus = status;
+            OrderStatusMachine.Transition transition;
+            try {
+                transition = sqliteRetryPolicy.execute("orders.status", () -> orderStatusMachine.transition(id, targetStatus));
+            } catch (RuntimeException e) {
+                return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+            }
+
+            // 조리 시작으로 실제 전이된 요청만 재고 소진 (조리 시작 시 재고 소진) - 실패하면 상태를 되돌림
+            if ("cooking".equals(status) && transition.changed()) {
+                try {
+                    sqliteRetryPolicy.run("inventory.consume", () -> inventoryService.consumeReservationsForOrder(id));
+                } catch (Exception e) {
+                    if (!orderStatusMachine.revert(transition)) {
+                        System.err.println("[EmployeeController] 주문 " + id + " 상태 되돌리기 실패 (다른 요청이 먼저 변경)");
+                    }
+                    return ResponseEntity.status(500).body(Map.of("error", "재고 소진 처리 중 오류가 발생했습니다: " + e.getMessage()));
+                }
+            }
 
             return ResponseEntity.ok(Map.of("message", "주문 상태가 업데이트되었습니다.", "status", status));
         } catch (RuntimeException e) {
@@ -0,0 +1,56 @@
+package com.mrdabak.dinnerservice.controller;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 목록 API 커서(keyset) 페이지네이션
+ * limit이 없으면 기존처럼 전체 목록을 반환한다 (기존 클라이언트 호환).
+ * limit이 있으면 id > cursor 인 행을 limit+1개까지 읽어, 다음 페이지가 있으면 마지막 id를 X-Next-Cursor 헤더로 알린다.
+ * 응답 본문은 페이지 여부와 관계없이 배열 그대로.
+ */
+final class KeysetPagination {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int MAX_LIMIT = 500;
+
+    private KeysetPagination() {
+    }
+
+    static long after(Long cursor) {
+        return cursor != null ? cursor : 0L;
+    }
+
+    /**
+     * 조회할 행 수 (다음 페이지 존재 여부 확인용으로 limit보다 1개 더). limit이 없으면 -1 (전체).
+     */
+    static int fetchSize(Integer limit) {
+        return limit != null ? clamp(limit) + 1 : -1;
+    }
+
+    static Pageable pageable(Integer limit) {
+        return limit != null ? PageRequest.of(0, clamp(limit) + 1) : Pageable.unpaged();
+    }
+
+    /**
+     * 한 행 더 읽힌 경우 잘라내고 X-Next-Cursor 헤더를 붙여 응답한다.
+     */
+    static <T, R> ResponseEntity<List<R>> respond(List<T> rows, Integer limit,
+                                                  Function<T, Long> idOf, Function<T, R> mapper) {
+        if (limit == null || rows.size() <= clamp(limit)) {
+            return ResponseEntity.ok(rows.stream().map(mapper).toList());
+        }
+        List<T> page = rows.subList(0, clamp(limit));
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, String.valueOf(idOf.apply(page.get(page.size() - 1))))
+                .body(page.stream().map(mapper).toList());
+    }
+
+    private static int clamp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+}
@@ -1,44 +1,77 @@
 package com.mrdabak.dinnerservice.controller;
 
 import com.mrdabak.dinnerservice.dto.OrderRequest;
-import com.mrdabak.dinnerservice.model.MenuItem;
+import com.mrdabak.dinnerservice.model.MenuCatalogVersion;
 import com.mrdabak.dinnerservice.model.Order;
-import com.mrdabak.dinnerservice.model.OrderItem;
-import com.mrdabak.dinnerservice.repository.MenuItemRepository;
-import com.mrdabak.dinnerservice.repository.order.OrderItemRepository;
+import com.mrdabak.dinnerservice.model.OrderChangeLog;
+import com.mrdabak.dinnerservice.model.OrderRequestKey;
+import com.mrdabak.dinnerservice.service.AsyncOrderTracker;
+import com.mrdabak.dinnerservice.service.OrderArchiveService;
+import com.mrdabak.dinnerservice.service.OrderAdmissionGate;
+import com.mrdabak.dinnerservice.service.OrderBulkImportService;
+import com.mrdabak.dinnerservice.service.OrderEventBus;
+import com.mrdabak.dinnerservice.service.OrderIdempotencyStore;
+import com.mrdabak.dinnerservice.service.OrderReadModel;
+import com.mrdabak.dinnerservice.service.OrderRequestKeyService;
 import com.mrdabak.dinnerservice.service.OrderService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/orders")
 public class OrderController {
-    
-    // 중복 주문 생성 방지를 위한 임시 저장소 (요청 ID 기반)
-    private final java.util.concurrent.ConcurrentHashMap<String, Long> pendingOrders = new java.util.concurrent.ConcurrentHashMap<>();
-    
-    // 사용자별 마지막 주문 시간 추적 (50초 제한)
-    private final java.util.concurrent.ConcurrentHashMap<Long, Long> userLastOrderTime = new java.util.concurrent.ConcurrentHashMap<>();
 
     private final OrderService orderService;
-    private final OrderItemRepository orderItemRepository;
-    private final MenuItemRepository menuItemRepository;
+    private final OrderAdmissionGate orderAdmissionGate;
+    private final OrderIdempotencyStore orderIdempotencyStore;
+    private final OrderRequestKeyService orderRequestKeyService;
+    private final AsyncOrderTracker asyncOrderTracker;
+    private final OrderBulkImportService orderBulkImportService;
+    private final OrderReadModel orderReadModel;
+    private final OrderEventBus orderEventBus;
+    private final OrderArchiveService orderArchiveService;
 
-    public OrderController(OrderService orderService, OrderItemRepository orderItemRepository,
-                          MenuItemRepository menuItemRepository) {
+    public OrderController(OrderService orderService, OrderAdmissionGate orderAdmissionGate,
+                          OrderIdempotencyStore orderIdempotencyStore, OrderRequestKeyService orderRequestKeyService,
+                          AsyncOrderTracker asyncOrderTracker, OrderBulkImportService orderBulkImportService,
+                          OrderReadModel orderReadModel, OrderEventBus orderEventBus,
+                          OrderArchiveService orderArchiveService) {
         this.orderService = orderService;
-        this.orderItemRepository = orderItemRepository;
-        this.menuItemRepository = menuItemRepository;
+        this.orderAdmissionGate = orderAdmissionGate;
+        this.orderIdempotencyStore = orderIdempotencyStore;
+        this.orderRequestKeyService = orderRequestKeyService;
+        this.asyncOrderTracker = asyncOrderTracker;
+        this.orderBulkImportService = orderBulkImportService;
+        this.orderReadModel = orderReadModel;
+        this.orderEventBus = orderEventBus;
+        this.orderArchiveService = orderArchiveService;
     }
 
+    /**
+     * 내 주문 목록. includeArchived=true면 보관 DB로 옮겨진 과거 주문도 뒤에 이어 붙인다.
+     */
     @GetMapping
-    public ResponseEntity<List<Map<String, Object>>> getUserOrders(Authentication authentication) {
+    public ResponseEntity<List<Map<String, Object>>> getUserOrders(
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            Authentication authentication, ServletWebRequest webRequest) {
         System.out.println("[주문 목록 조회 API] 요청 시작");
         
         try {
@@ -67,41 +100,43 @@ public class OrderController {
                 return ResponseEntity.status(401).body(List.of(Map.of("error", "Invalid user ID format: " + authName)));
             }
             
-            // 3단계: 주문 조회
+            // 변경이 없으면 주문을 읽지 않고 304 (사용자 주문 버전 기반 ETag)
+            // 보관은 orders.db 삭제를 동반하므로 같은 사용자 버전으로 과거 주문 포함 목록도 검증 가능
+            if (isNotModified(webRequest, includeArchived ? "orders-all" : "orders", userId)) {
+                System.out.println("[3단계] 주문 변경 없음 - 304 응답");
+                return null;
+            }
+            
+            // 3단계: 주문 조회 (조립된 읽기 모델에서 - 주문마다 항목/메뉴를 다시 조회하지 않음)
             System.out.println("[3단계] 주문 조회 시작 (사용자 ID: " + userId + ")");
-            List<Order> orders = orderService.getUserOrders(userId);
+            List<OrderReadModel.OrderView> orders = orderReadModel.ordersForUser(userId);
+            if (includeArchived) {
+                // 보관 직후 삭제가 아직 반영되지 않은 주문은 orders.db 쪽만 사용
+                Set<Long> hotIds = new HashSet<>();
+                orders.forEach(order -> hotIds.add(order.id()));
+                List<OrderReadModel.OrderView> all = new ArrayList<>(orders);
+                orderArchiveService.archivedOrdersForUser(userId).stream()
+                        .filter(order -> !hotIds.contains(order.id()))
+                        .forEach(all::add);
+                orders = all;
+            }
             System.out.println("[3단계] 주문 조회 완료: " + orders.size() + "개 주문 발견");
             
             // 4단계: 주문 데이터 변환
             System.out.println("[4단계] 주문 데이터 변환 시작");
             List<Map<String, Object>> orderDtos = orders.stream().map(order -> {
             Map<String, Object> orderMap = new HashMap<>();
-            orderMap.put("id", order.getId());
-            orderMap.put("dinner_type_id", order.getDinnerTypeId());
-            orderMap.put("serving_style", order.getServingStyle());
-            orderMap.put("delivery_time", order.getDeliveryTime());
-            orderMap.put("delivery_address", order.getDeliveryAddress());
-            orderMap.put("total_price", order.getTotalPrice());
-            orderMap.put("status", order.getStatus());
-            orderMap.put("payment_status", order.getPaymentStatus());
-            orderMap.put("created_at", order.getCreatedAt());
-            orderMap.put("admin_approval_status", order.getAdminApprovalStatus());
-
-            List<OrderItem> items = orderItemRepository.findByOrderId(order.getId());
-            List<Map<String, Object>> itemDtos = items.stream().map(item -> {
-                MenuItem menuItem = menuItemRepository.findById(item.getMenuItemId()).orElse(null);
-                Map<String, Object> itemMap = new HashMap<>();
-                itemMap.put("id", item.getId());
-                itemMap.put("menu_item_id", item.getMenuItemId());
-                itemMap.put("quantity", item.getQuantity());
-                if (menuItem != null) {
-                    itemMap.put("name", menuItem.getName());
-                    itemMap.put("name_en", menuItem.getNameEn());
-                    itemMap.put("price", menuItem.getPrice());
-                }
-                return itemMap;
-            }).toList();
-            orderMap.put("items", itemDtos);
+            orderMap.put("id", order.id());
+            orderMap.put("dinner_type_id", order.dinnerTypeId());
+            orderMap.put("serving_style", order.servingStyle());
+            orderMap.put("delivery_time", order.deliveryTime());
+            orderMap.put("delivery_address", order.deliveryAddress());
+            orderMap.put("total_price", order.totalPrice());
+            orderMap.put("status", order.status());
+            orderMap.put("payment_status", order.paymentStatus());
+            orderMap.put("created_at", order.createdAt());
+            orderMap.put("admin_approval_status", order.adminApprovalStatus());
+            orderMap.put("items", order.items());
             return orderMap;
         }).toList();
         
@@ -118,25 +153,51 @@ public class OrderController {
         }
     }
 
+    /**
+     * 내 주문 상태 변경 이벤트 구독 (SSE) - 목록을 다시 불러오지 않고 변경분만 받는다.
+     */
+    @GetMapping(value = "/events", produces = "text/event-stream")
+    public ResponseEntity<?> streamOrderEvents(Authentication authentication) {
+        try {
+            if (authentication == null || authentication.getName() == null || authentication.getName().isEmpty()) {
+                return ResponseEntity.status(401).body(Map.of("error", "Authentication required"));
+            }
+            Long userId = Long.parseLong(authentication.getName());
+            return ResponseEntity.ok(orderEventBus.subscribeCustomer(userId));
+        } catch (NumberFormatException e) {
+            return ResponseEntity.status(401).body(Map.of("error", "Invalid user ID"));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(503).body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/stats")
-    public ResponseEntity<Map<String, Object>> getOrderStats(Authentication authentication) {
+    public ResponseEntity<Map<String, Object>> getOrderStats(Authentication authentication, ServletWebRequest webRequest) {
         try {
             if (authentication == null || authentication.getName() == null || authentication.getName().isEmpty()) {
                 return ResponseEntity.status(401).body(Map.of("error", "Authentication required"));
             }
 
             Long userId = Long.parseLong(authentication.getName());
-            List<Order> orders = orderService.getUserOrders(userId);
-            
-            long totalOrders = orders.size();
-            long deliveredOrders = orders.stream().filter(o -> "delivered".equals(o.getStatus())).count();
-            long pendingOrders = orders.stream().filter(o -> 
-                "pending".equals(o.getStatus()) || 
-                "cooking".equals(o.getStatus()) || 
-                "ready".equals(o.getStatus()) || 
-                "out_for_delivery".equals(o.getStatus())
-            ).count();
-            
+            if (isNotModified(webRequest, "order-stats", userId)) {
+                return null;
+            }
+            // 주문을 모두 불러오지 않고 상태별 개수만 집계 (주문 수와 관계없이 쿼리 1번)
+            long totalOrders = 0;
+            long deliveredOrders = 0;
+            long pendingOrders = 0;
+            for (Map.Entry<String, Long> entry : orderService.getUserOrderStatusCounts(userId).entrySet()) {
+                String status = entry.getKey();
+                long count = entry.getValue();
+                totalOrders += count;
+                if ("delivered".equals(status)) {
+                    deliveredOrders += count;
+                } else if ("pending".equals(status) || "cooking".equals(status)
+                        || "ready".equals(status) || "out_for_delivery".equals(status)) {
+                    pendingOrders += count;
+                }
+            }
+
             return ResponseEntity.ok(Map.of(
                 "totalOrders", totalOrders,
                 "deliveredOrders", deliveredOrders,
@@ -148,10 +209,12 @@ public class OrderController {
     }
 
     @PostMapping
-    public synchronized ResponseEntity<?> createOrder(
+    public ResponseEntity<?> createOrder(
             @Valid @RequestBody OrderRequest request, 
             Authentication authentication,
-            @RequestHeader(value = "X-Request-ID", required = false) String requestId) {
+            @RequestHeader(value = "X-Request-ID", required = false) String requestId,
+            @RequestHeader(value = "Prefer", required = false) String prefer,
+            @RequestParam(value = "async", required = false, defaultValue = "false") boolean async) {
         String threadId = Thread.currentThread().getName() + "-" + Thread.currentThread().getId();
         System.out.println("========== [주문 생성 API] 요청 시작 ==========");
         System.out.println("[주문 생성 API] 스레드: " + threadId);
@@ -193,137 +256,246 @@ public class OrderController {
             
             Long userId = Long.parseLong(authentication.getName());
             
-            // 같은 계정으로 50초 이내에 하나의 주문만 가능하도록 제한
-            long currentTime = System.currentTimeMillis();
-            Long lastOrderTime = userLastOrderTime.get(userId);
-            if (lastOrderTime != null) {
-                long timeSinceLastOrder = currentTime - lastOrderTime;
-                if (timeSinceLastOrder < 50000) { // 50초 미만
-                    long remainingSeconds = (50000 - timeSinceLastOrder) / 1000;
-                    System.out.println("[주문 생성 API] 중복 주문 방지 - 마지막 주문으로부터 " + timeSinceLastOrder + "ms 경과, " + remainingSeconds + "초 후 가능");
-                    return ResponseEntity.status(429).body(Map.of(
-                            "error", "같은 계정으로 50초 이내에는 하나의 주문만 가능합니다. " + remainingSeconds + "초 후 다시 시도해주세요."
-                    ));
-                }
+            // 비동기 모드: 추적 ID만 반환하고 주문 처리는 작업 풀에서 진행
+            if (async || (prefer != null && prefer.toLowerCase().contains("respond-async"))) {
+                return acceptOrderAsync(userId, request, requestId, threadId);
             }
             
-            // Validate request
-            if (request.getDinnerTypeId() == null) {
-                return ResponseEntity.badRequest().body(Map.of("error", "Dinner type is required"));
-            }
-            if (request.getServingStyle() == null || request.getServingStyle().isEmpty()) {
-                return ResponseEntity.badRequest().body(Map.of("error", "Serving style is required"));
-            }
-            if (request.getDeliveryTime() == null || request.getDeliveryTime().isEmpty()) {
-                return ResponseEntity.badRequest().body(Map.of("error", "Delivery time is required"));
-            }
-            if (request.getDeliveryAddress() == null || request.getDeliveryAddress().isEmpty()) {
-                return ResponseEntity.badRequest().body(Map.of("error", "Delivery address is required"));
+            // 같은 계정의 요청만 직렬화하고, 다른 고객의 주문은 병렬로 처리
+            return orderAdmissionGate.admit(userId, () -> acceptOrder(userId, request, requestId, threadId));
+        } catch (NumberFormatException e) {
+            return ResponseEntity.status(401).body(Map.of("error", "Invalid user ID"));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of("error", "Internal server error: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 대량 주문 등록 (단체/케이터링) - 본문은 NDJSON(한 줄에 주문 하나) 또는 CSV.
+     * 행별 결과를 NDJSON으로 스트리밍하고 마지막 줄에 요약을 보낸다.
+     * 건별 주문의 50초 제한 대신 최대 행 수(order.bulk.max-rows)로 제한한다.
+     */
+    @PostMapping(value = "/bulk", consumes = {"application/x-ndjson", "application/json", "text/csv"})
+    public ResponseEntity<?> importOrders(HttpServletRequest httpRequest, Authentication authentication) {
+        try {
+            if (authentication == null || authentication.getName() == null || authentication.getName().isEmpty()) {
+                return ResponseEntity.status(401).body(Map.of("error", "Authentication required"));
             }
-            if (request.getItems() == null || request.getItems().isEmpty()) {
-                return ResponseEntity.badRequest().body(Map.of("error", "Order items are required"));
+            Long userId = Long.parseLong(authentication.getName());
+            List<OrderBulkImportService.ImportRow> rows =
+                    orderBulkImportService.parse(httpRequest.getInputStream(), httpRequest.getContentType());
+            if (rows.isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "등록할 주문이 없습니다."));
             }
-            
-            // 중복 주문 생성 방지: Request ID 또는 동일한 요청이 50초 이내에 들어오면 거부
-            String requestKey;
-            
-            if (requestId != null && !requestId.trim().isEmpty()) {
-                // Request ID가 있으면 이를 사용 (프론트엔드에서 전송한 고유 ID)
-                requestKey = userId + "|" + requestId.trim();
-                System.out.println("[주문 생성 API] Request ID 사용: " + requestId);
-            } else {
-                // Request ID가 없으면 더 정확한 키 생성 (밀리초 단위)
-                requestKey = userId + "|" + request.getDeliveryTime() + "|" + request.getDeliveryAddress() + "|" + currentTime;
-                System.out.println("[주문 생성 API] Request ID 없음, 타임스탬프 기반 키 사용: " + requestKey);
+            System.out.println("[대량 주문 API] 사용자 ID: " + userId + ", 행 수: " + rows.size());
+            StreamingResponseBody body = out -> orderBulkImportService.importOrders(userId, rows, out);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                    .body(body);
+        } catch (NumberFormatException e) {
+            return ResponseEntity.status(401).body(Map.of("error", "Invalid user ID"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "요청 본문을 읽을 수 없습니다: " + e.getMessage()));
+        }
+    }
+
+    private ResponseEntity<?> acceptOrderAsync(Long userId, OrderRequest request, String requestId, String threadId) {
+        ResponseEntity<?> invalid = validateRequest(request);
+        if (invalid != null) {
+            return invalid;
+        }
+        try {
+            AsyncOrderTracker.Tracking tracking = asyncOrderTracker.submit(userId, () -> toOutcome(
+                    orderAdmissionGate.admit(userId, () -> acceptOrder(userId, request, requestId, threadId))));
+            String statusUrl = "/api/orders/requests/" + tracking.getTrackingId();
+            System.out.println("[주문 생성 API] 비동기 접수 - 사용자 ID: " + userId + ", 추적 ID: " + tracking.getTrackingId());
+            return ResponseEntity.status(202)
+                    .header("Location", statusUrl)
+                    .body(Map.of(
+                            "message", "Order accepted",
+                            "tracking_id", tracking.getTrackingId(),
+                            "status", tracking.getStatus(),
+                            "status_url", statusUrl,
+                            "events_url", statusUrl + "/events"
+                    ));
+        } catch (RejectedExecutionException e) {
+            System.out.println("[주문 생성 API] 비동기 작업 풀 포화 - 사용자 ID: " + userId);
+            return ResponseEntity.status(503)
+                    .header("Retry-After", "5")
+                    .body(Map.of("error", "주문 요청이 많아 잠시 후 다시 시도해주세요."));
+        }
+    }
+
+    private AsyncOrderTracker.Outcome toOutcome(ResponseEntity<?> response) {
+        Map<String, Object> body = new HashMap<>();
+        if (response.getBody() instanceof Map<?, ?> map) {
+            map.forEach((key, value) -> body.put(String.valueOf(key), value));
+        }
+        return new AsyncOrderTracker.Outcome(response.getStatusCode().value(), body);
+    }
+
+    @GetMapping("/requests/{trackingId}")
+    public ResponseEntity<?> getOrderRequestStatus(@PathVariable String trackingId, Authentication authentication) {
+        try {
+            if (authentication == null || authentication.getName() == null || authentication.getName().isEmpty()) {
+                return ResponseEntity.status(401).body(Map.of("error", "Authentication required"));
             }
-            
-            // 먼저 pendingOrders에서 확인
-            Long existingOrderId = pendingOrders.get(requestKey);
-            if (existingOrderId != null) {
-                System.out.println("[주문 생성 API] 중복 요청 감지 - 요청 키: " + requestKey + ", 기존 주문 ID: " + existingOrderId);
-                return ResponseEntity.status(409).body(Map.of(
-                        "error", "동일한 주문이 이미 처리 중입니다.",
-                        "order_id", existingOrderId
-                ));
+            Long userId = Long.parseLong(authentication.getName());
+            return asyncOrderTracker.find(trackingId, userId)
+                    .<ResponseEntity<?>>map(tracking -> ResponseEntity.ok(tracking.toMap()))
+                    .orElseGet(() -> ResponseEntity.status(404).body(Map.of("error", "주문 요청을 찾을 수 없습니다.")));
+        } catch (NumberFormatException e) {
+            return ResponseEntity.status(401).body(Map.of("error", "Invalid user ID"));
+        }
+    }
+
+    @GetMapping(value = "/requests/{trackingId}/events", produces = "text/event-stream")
+    public ResponseEntity<?> streamOrderRequestStatus(@PathVariable String trackingId, Authentication authentication) {
+        try {
+            if (authentication == null || authentication.getName() == null || authentication.getName().isEmpty()) {
+                return ResponseEntity.status(401).body(Map.of("error", "Authentication required"));
             }
-            
-            // 추가 검증: 최근 50초 이내에 동일한 사용자가 주문을 생성했는지 확인
-            String baseRequestKey = userId + "|" + request.getDeliveryTime() + "|" + request.getDeliveryAddress();
-            long fiftySecondsAgo = currentTime - 50000;
-            for (Map.Entry<String, Long> entry : pendingOrders.entrySet()) {
-                if (entry.getKey().startsWith(baseRequestKey + "|")) {
-                    // 키에서 타임스탬프 추출
-                    String[] parts = entry.getKey().split("\\|");
-                    if (parts.length >= 4) {
-                        try {
-                            long entryTime = Long.parseLong(parts[3]);
-                            if (entryTime > fiftySecondsAgo) {
-                                System.out.println("[주문 생성 API] 중복 요청 감지 (기본 키) - 요청 키: " + entry.getKey() + ", 기존 주문 ID: " + entry.getValue());
-                                return ResponseEntity.status(409).body(Map.of(
-                                        "error", "동일한 주문이 이미 처리 중입니다.",
-                                        "order_id", entry.getValue()
-                                ));
-                            }
-                        } catch (NumberFormatException e) {
-                            // 타임스탬프 파싱 실패 시 무시
-                        }
-                    }
-                }
+            Long userId = Long.parseLong(authentication.getName());
+            Optional<AsyncOrderTracker.Tracking> tracking = asyncOrderTracker.find(trackingId, userId);
+            if (tracking.isEmpty()) {
+                return ResponseEntity.status(404).body(Map.of("error", "주문 요청을 찾을 수 없습니다."));
             }
-            
-            // 사용자별 마지막 주문 시간 업데이트
-            userLastOrderTime.put(userId, currentTime);
-            
-            // pendingOrders에 추가 (처리 시작 표시)
-            pendingOrders.put(requestKey, -1L); // -1은 처리 중임을 나타냄
-            
-            System.out.println("[주문 생성 API] 주문 서비스 호출 전 - 사용자 ID: " + userId);
-            System.out.println("[주문 생성 API] 스레드: " + threadId);
-            System.out.println("[주문 생성 API] Request ID: " + (requestId != null ? requestId : "없음"));
-            System.out.println("[주문 생성 API] 배달 시간: " + request.getDeliveryTime());
-            System.out.println("[주문 생성 API] 배달 주소: " + request.getDeliveryAddress());
-            
-            Order order = orderService.createOrder(userId, request);
-            
-            System.out.println("[주문 생성 API] 주문 서비스 호출 완료 - 주문 ID: " + order.getId());
-            System.out.println("[주문 생성 API] 스레드: " + threadId);
-            System.out.println("[주문 생성 API] Request ID: " + (requestId != null ? requestId : "없음"));
-            System.out.println("[주문 생성 API] 주문은 1개만 생성되었습니다.");
-            
-            // 주문 생성 완료 후 pendingOrders 업데이트 및 50초 후에 제거
-            pendingOrders.put(requestKey, order.getId());
-            new java.util.Timer().schedule(new java.util.TimerTask() {
-                @Override
-                public void run() {
-                    pendingOrders.remove(requestKey);
-                    System.out.println("[주문 생성 API] 중복 방지 키 제거: " + requestKey);
-                }
-            }, 50000); // 50초
-            
-            // 사용자별 마지막 주문 시간도 50초 후에 제거 (선택적)
-            new java.util.Timer().schedule(new java.util.TimerTask() {
-                @Override
-                public void run() {
-                    Long storedTime = userLastOrderTime.get(userId);
-                    if (storedTime != null && storedTime.equals(currentTime)) {
-                        userLastOrderTime.remove(userId);
-                        System.out.println("[주문 생성 API] 사용자 " + userId + "의 주문 제한 해제");
-                    }
-                }
-            }, 50000); // 50초
-            
-            return ResponseEntity.status(201).body(Map.of(
-                    "message", "Order created successfully",
-                    "order_id", order.getId(),
-                    "total_price", order.getTotalPrice()
-            ));
+            SseEmitter emitter = asyncOrderTracker.subscribe(tracking.get());
+            return ResponseEntity.ok(emitter);
         } catch (NumberFormatException e) {
             return ResponseEntity.status(401).body(Map.of("error", "Invalid user ID"));
+        }
+    }
+
+    private ResponseEntity<?> validateRequest(OrderRequest request) {
+        if (request.getDinnerTypeId() == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Dinner type is required"));
+        }
+        if (request.getServingStyle() == null || request.getServingStyle().isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Serving style is required"));
+        }
+        if (request.getDeliveryTime() == null || request.getDeliveryTime().isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Delivery time is required"));
+        }
+        if (request.getDeliveryAddress() == null || request.getDeliveryAddress().isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Delivery address is required"));
+        }
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Order items are required"));
+        }
+        return null;
+    }
+
+    private ResponseEntity<?> acceptOrder(Long userId, OrderRequest request, String requestId, String threadId) {
+        String normalizedRequestId = requestId != null && !requestId.trim().isEmpty() ? requestId.trim() : null;
+        
+        // 이미 처리된 Request ID는 가격 계산/재고 확인 없이 최초 응답을 그대로 반환 (재시작 후 재전송 포함)
+        if (normalizedRequestId != null) {
+            Optional<OrderRequestKey> storedKey = orderRequestKeyService.find(userId, normalizedRequestId);
+            if (storedKey.isPresent()) {
+                return replayResponse(storedKey.get());
+            }
+        }
+        
+        // 같은 계정으로 50초 이내에 하나의 주문만 가능하도록 제한
+        long currentTime = System.currentTimeMillis();
+        long remainingMillis = orderIdempotencyStore.remainingThrottleMillis(userId, currentTime);
+        if (remainingMillis > 0) {
+            long remainingSeconds = remainingMillis / 1000;
+            System.out.println("[주문 생성 API] 중복 주문 방지 - " + remainingSeconds + "초 후 가능");
+            return ResponseEntity.status(429).body(Map.of(
+                    "error", "같은 계정으로 50초 이내에는 하나의 주문만 가능합니다. " + remainingSeconds + "초 후 다시 시도해주세요."
+            ));
+        }
+        
+        // Validate request
+        ResponseEntity<?> invalid = validateRequest(request);
+        if (invalid != null) {
+            return invalid;
+        }
+        
+        // 중복 주문 생성 방지: Request ID 또는 동일한 요청(배달 시간 + 주소)이 50초 이내에 들어오면 거부
+        Long existingOrderId;
+        if (normalizedRequestId != null) {
+            // Request ID가 있으면 이를 사용 (프론트엔드에서 전송한 고유 ID)
+            System.out.println("[주문 생성 API] Request ID 사용: " + normalizedRequestId);
+            existingOrderId = orderIdempotencyStore.findByRequestId(userId, normalizedRequestId, currentTime);
+        } else {
+            System.out.println("[주문 생성 API] Request ID 없음, 배달 시간/주소 기준으로 중복 확인");
+            existingOrderId = orderIdempotencyStore.findByFingerprint(
+                    userId, request.getDeliveryTime(), request.getDeliveryAddress(), currentTime);
+        }
+        if (existingOrderId != null) {
+            System.out.println("[주문 생성 API] 중복 요청 감지 - 사용자 ID: " + userId + ", 기존 주문 ID: " + existingOrderId);
+            return ResponseEntity.status(409).body(Map.of(
+                    "error", "동일한 주문이 이미 처리 중입니다.",
+                    "order_id", existingOrderId
+            ));
+        }
+        
+        // 다른 인스턴스에서 같은 Request ID를 처리 중인지 orders.db에서 확인하며 선점
+        if (normalizedRequestId != null) {
+            OrderRequestKeyService.Claim claim = orderRequestKeyService.claim(userId, normalizedRequestId);
+            if (!claim.acquired()) {
+                System.out.println("[주문 생성 API] 중복 요청 감지 (영구 저장소) - Request ID: " + normalizedRequestId);
+                return replayResponse(claim.existing());
+            }
+        }
+        
+        // 처리 시작 표시 (사용자별 마지막 주문 시간 포함)
+        orderIdempotencyStore.markInFlight(userId, normalizedRequestId,
+                request.getDeliveryTime(), request.getDeliveryAddress(), currentTime);
+        
+        System.out.println("[주문 생성 API] 주문 서비스 호출 전 - 사용자 ID: " + userId);
+        System.out.println("[주문 생성 API] 스레드: " + threadId);
+        System.out.println("[주문 생성 API] Request ID: " + (requestId != null ? requestId : "없음"));
+        System.out.println("[주문 생성 API] 배달 시간: " + request.getDeliveryTime());
+        System.out.println("[주문 생성 API] 배달 주소: " + request.getDeliveryAddress());
+        
+        // 요청 키 완료 기록은 주문과 같은 orders.db 트랜잭션에서 저장된다
+        Order order;
+        try {
+            order = orderService.createOrder(userId, request,
+                    normalizedRequestId != null ? orderRequestKeyService.requestKey(userId, normalizedRequestId) : null);
         } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
-        } catch (Exception e) {
-            return ResponseEntity.status(500).body(Map.of("error", "Internal server error: " + e.getMessage()));
+            if (normalizedRequestId != null) {
+                orderRequestKeyService.release(userId, normalizedRequestId);
+            }
+            throw e;
+        }
+        
+        System.out.println("[주문 생성 API] 주문 서비스 호출 완료 - 주문 ID: " + order.getId());
+        System.out.println("[주문 생성 API] 스레드: " + threadId);
+        System.out.println("[주문 생성 API] Request ID: " + (requestId != null ? requestId : "없음"));
+        System.out.println("[주문 생성 API] 주문은 1개만 생성되었습니다.");
+        
+        // 주문 생성 완료 기록 - 만료된 키는 저장소의 주기적 정리 작업이 제거
+        orderIdempotencyStore.complete(userId, normalizedRequestId,
+                request.getDeliveryTime(), request.getDeliveryAddress(), order.getId(), System.currentTimeMillis());
+        
+        return ResponseEntity.status(201).body(Map.of(
+                "message", "Order created successfully",
+                "order_id", order.getId(),
+                "total_price", order.getTotalPrice()
+        ));
+    }
+
+    private ResponseEntity<?> replayResponse(OrderRequestKey storedKey) {
+        if (storedKey == null || storedKey.getOrderId() == null) {
+            return ResponseEntity.status(409).body(Map.of("error", "동일한 주문이 이미 처리 중입니다."));
         }
+        int status = storedKey.getResponseStatus() != null ? storedKey.getResponseStatus() : 201;
+        return ResponseEntity.status(status)
+                .header("Idempotent-Replayed", "true")
+                .body(Map.of(
+                        "message", "Order created successfully",
+                        "order_id", storedKey.getOrderId(),
+                        "total_price", storedKey.getTotalPrice() != null ? storedKey.getTotalPrice() : 0
+                ));
     }
 
     @PostMapping("/{orderId}/modify")
@@ -374,5 +546,19 @@ public class OrderController {
             return ResponseEntity.status(500).body(Map.of("error", "Internal server error: " + e.getMessage()));
         }
     }
-}
 
+    /**
+     * 주문 목록/통계 조건부 GET - ETag는 해당 사용자 주문이 커밋되거나 메뉴가 바뀌면 달라진다.
+     * 버전은 이 프로세스 메모리에만 있으므로 단일 인스턴스 실행이 전제다 (SingleInstanceLock이 강제).
+     * If-None-Match가 일치하면 304로 응답하므로 호출자는 주문을 읽지 않고 null을 반환한다.
+     */
+    private boolean isNotModified(ServletWebRequest webRequest, String resource, Long userId) {
+        // 브라우저가 응답을 보관했다가 재검증하도록 (Spring Security 기본값 no-store 대신)
+        if (webRequest.getResponse() != null) {
+            webRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        }
+        String etag = "\"" + resource + "-" + userId + "-" + OrderChangeLog.userVersion(userId)
+                + "-" + MenuCatalogVersion.current() + "\"";
+        return webRequest.checkNotModified(etag);
+    }
+}
@@ -1,6 +1,7 @@
 package com.mrdabak.dinnerservice.controller;
 
 import com.mrdabak.dinnerservice.model.Order;
+import com.mrdabak.dinnerservice.model.OrderChangeLog;
 import com.mrdabak.dinnerservice.repository.order.OrderRepository;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
@@ -35,9 +36,11 @@ public class PaymentController {
         // In a real application, integrate with payment gateway here
         // For now, simulate successful payment
 
-        order.setPaymentStatus("paid");
-        order.setPaymentMethod(paymentMethod);
-        orderRepository.save(order);
+        // 결제 열만 UPDATE - 전체 엔티티 저장은 그 사이 바뀐 주문 상태를 덮어씀
+        if (orderRepository.markPaid(orderId, paymentMethod) == 0) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Order already paid"));
+        }
+        OrderChangeLog.markChanged(orderId, userId);
 
         return ResponseEntity.ok(Map.of(
                 "message", "Payment processed successfully",
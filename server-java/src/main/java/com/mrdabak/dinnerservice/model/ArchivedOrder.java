@@ -0,0 +1,85 @@
+package com.mrdabak.dinnerservice.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 보관된 주문 (archive DB)
+ * 배달 완료/취소 후 일정 기간이 지난 주문을 orders.db에서 옮겨 둔 사본. ID는 원래 주문 ID를 그대로 쓴다.
+ */
+@Entity
+@Table(name = "archived_orders", indexes = {
+        @Index(name = "idx_archived_orders_user_created", columnList = "user_id, created_at"),
+        @Index(name = "idx_archived_orders_user_status", columnList = "user_id, status")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedOrder {
+    @Id
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "dinner_type_id", nullable = false)
+    private Long dinnerTypeId;
+
+    @Column(name = "serving_style", nullable = false)
+    private String servingStyle;
+
+    @Column(name = "delivery_time", nullable = false)
+    private String deliveryTime;
+
+    @Column(name = "delivery_at")
+    private LocalDateTime deliveryAt;
+
+    @Column(name = "delivery_address", nullable = false)
+    private String deliveryAddress;
+
+    @Column(name = "total_price", nullable = false)
+    private Integer totalPrice;
+
+    @Column(nullable = false)
+    private String status;
+
+    @Column(name = "payment_status", nullable = false)
+    private String paymentStatus;
+
+    @Column(name = "payment_method")
+    private String paymentMethod;
+
+    @Column(name = "cooking_employee_id")
+    private Long cookingEmployeeId;
+
+    @Column(name = "delivery_employee_id")
+    private Long deliveryEmployeeId;
+
+    @Column(name = "admin_approval_status")
+    private String adminApprovalStatus;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    public static ArchivedOrder from(Order order, LocalDateTime archivedAt) {
+        return new ArchivedOrder(order.getId(), order.getUserId(), order.getDinnerTypeId(), order.getServingStyle(),
+                order.getDeliveryTime(), order.getDeliveryAt(), order.getDeliveryAddress(), order.getTotalPrice(),
+                order.getStatus(), order.getPaymentStatus(), order.getPaymentMethod(), order.getCookingEmployeeId(),
+                order.getDeliveryEmployeeId(), order.getAdminApprovalStatus(), order.getCreatedAt(), archivedAt);
+    }
+
+    /**
+     * 조회용 주문 객체로 변환 (저장하지 않는 사본)
+     */
+    public Order toOrder() {
+        return new Order(id, userId, dinnerTypeId, servingStyle, deliveryTime, deliveryAt, deliveryAddress, totalPrice,
+                status, paymentStatus, paymentMethod, cookingEmployeeId, deliveryEmployeeId, adminApprovalStatus, createdAt);
+    }
+}
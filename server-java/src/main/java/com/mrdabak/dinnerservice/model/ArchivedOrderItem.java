@@ -0,0 +1,38 @@
+package com.mrdabak.dinnerservice.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * 보관된 주문 항목 (archive DB) - ArchivedOrder와 함께 옮겨진다.
+ */
+@Entity
+@Table(name = "archived_order_items", indexes = {
+        @Index(name = "idx_archived_order_items_order_id", columnList = "order_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedOrderItem {
+    @Id
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "menu_item_id", nullable = false)
+    private Long menuItemId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    public static ArchivedOrderItem from(OrderItem item) {
+        return new ArchivedOrderItem(item.getId(), item.getOrderId(), item.getMenuItemId(), item.getQuantity());
+    }
+
+    public OrderItem toOrderItem() {
+        return new OrderItem(id, orderId, menuItemId, quantity);
+    }
+}
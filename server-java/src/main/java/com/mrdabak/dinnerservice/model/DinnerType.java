@@ -25,5 +25,12 @@ public class DinnerType {
     private Integer basePrice;
 
     private String description;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    protected void onCatalogChange() {
+        MenuCatalogVersion.markChanged();
+    }
 }
 
@@ -0,0 +1,41 @@
+package com.mrdabak.dinnerservice.model;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 메뉴/디너 변경 버전
+ * MenuItem, DinnerType 엔티티가 저장/수정/삭제될 때마다 증가하며,
+ * 메뉴 데이터를 메모리에 캐시하는 쪽(가격표 등)은 이 값이 바뀌면 다시 읽는다.
+ * 엔티티 콜백은 커밋 전에 불리므로 버전은 커밋된 뒤에 올린다. (커밋 전에 올리면 그사이 다시 읽은 쪽이
+ * 이전 메뉴를 새 버전으로 캐시하고, 이후 버전이 더 바뀌지 않아 오래된 메뉴를 계속 쓰게 됨)
+ */
+public final class MenuCatalogVersion {
+
+    private static final AtomicLong VERSION = new AtomicLong(1);
+
+    private MenuCatalogVersion() {
+    }
+
+    public static long current() {
+        return VERSION.get();
+    }
+
+    /**
+     * 현재 트랜잭션이 있으면 커밋된 뒤에만 버전을 올리고, 롤백되면 무시된다.
+     */
+    public static void markChanged() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            VERSION.incrementAndGet();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                VERSION.incrementAndGet();
+            }
+        });
+    }
+}
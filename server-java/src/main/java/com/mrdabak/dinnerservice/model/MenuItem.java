@@ -26,5 +26,12 @@ public class MenuItem {
 
     @Column(nullable = false)
     private String category;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    protected void onCatalogChange() {
+        MenuCatalogVersion.markChanged();
+    }
 }
 
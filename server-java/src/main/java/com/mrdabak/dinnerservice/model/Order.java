@@ -8,7 +8,12 @@ import lombok.AllArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_user_delivery_created", columnList = "user_id, delivery_time, delivery_address, created_at"),
+        @Index(name = "idx_orders_delivery_at", columnList = "delivery_at"),
+        @Index(name = "idx_orders_user_status", columnList = "user_id, status"),
+        @Index(name = "idx_orders_status_created", columnList = "status, created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -29,6 +34,10 @@ public class Order {
     @Column(name = "delivery_time", nullable = false)
     private String deliveryTime;
 
+    // delivery_time을 주문 저장 시 한 번 파싱해 둔 값 (날짜/시간대 범위 조회용)
+    @Column(name = "delivery_at")
+    private LocalDateTime deliveryAt;
+
     @Column(name = "delivery_address", nullable = false)
     private String deliveryAddress;
 
@@ -60,5 +69,12 @@ public class Order {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
     }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    protected void onOrderChange() {
+        OrderChangeLog.markChanged(id, userId);
+    }
 }
 
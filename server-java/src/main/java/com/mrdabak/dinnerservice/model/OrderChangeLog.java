@@ -0,0 +1,126 @@
+package com.mrdabak.dinnerservice.model;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 변경된 주문 ID 목록 + 사용자별 주문 버전
+ * Order, OrderItem 엔티티가 저장/수정/삭제되면 커밋 이후 주문 ID가 기록되며,
+ * 주문을 메모리에 조립해 두는 쪽(주문 읽기 모델)은 여기 쌓인 주문만 다시 읽는다.
+ * 주문 소유자를 알면 해당 사용자의 버전도 올리며, 주문 목록 API는 이 버전으로 ETag를 만든다.
+ * JPQL 일괄 UPDATE처럼 엔티티 콜백이 불리지 않는 경로는 markChanged를 직접 호출한다.
+ * 사용자 정보(이름/연락처 등)가 바뀌면 그 사용자가 고객이나 담당 직원인 주문도 다시 읽도록 사용자 ID를 기록한다.
+ *
+ * 기록은 이 프로세스의 메모리에만 있으므로 다른 서버가 같은 DB에 쓴 변경은 알 수 없다.
+ * 그래서 서버는 단일 인스턴스로만 실행하며, SingleInstanceLock이 시작 시 이를 강제한다.
+ */
+public final class OrderChangeLog {
+
+    // 서버 재시작 시 이전 버전과 겹치지 않도록 버전 앞에 붙이는 값
+    private static final long EPOCH = System.currentTimeMillis();
+
+    // ID -> 기록 순번 (반영 중 다시 기록되었는지 구분용)
+    private static final Map<Long, Long> CHANGED = new ConcurrentHashMap<>();
+    private static final Map<Long, Long> CHANGED_USERS = new ConcurrentHashMap<>();
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+    private static final Map<Long, AtomicLong> USER_VERSIONS = new ConcurrentHashMap<>();
+
+    private OrderChangeLog() {
+    }
+
+    /**
+     * 현재 트랜잭션이 있으면 커밋된 뒤에만 기록되고, 롤백되면 무시된다.
+     */
+    public static void markChanged(Long orderId) {
+        markChanged(orderId, null);
+    }
+
+    /**
+     * 주문 소유자를 아는 경우 - 주문 ID 기록과 함께 사용자 주문 버전을 올린다.
+     */
+    public static void markChanged(Long orderId, Long userId) {
+        if (orderId == null && userId == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(orderId, userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(orderId, userId);
+            }
+        });
+    }
+
+    /**
+     * 사용자 정보 변경 - 커밋된 뒤 해당 사용자 ID를 기록하고 사용자 주문 버전을 올린다.
+     */
+    public static void markUserChanged(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recordUser(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recordUser(userId);
+            }
+        });
+    }
+
+    /**
+     * 사용자 주문 버전 ("서버 시작 시각-버전"). 해당 사용자 주문이 커밋될 때마다 바뀐다.
+     */
+    public static String userVersion(Long userId) {
+        AtomicLong version = USER_VERSIONS.get(userId);
+        return EPOCH + "-" + (version != null ? version.get() : 0L);
+    }
+
+    private static void record(Long orderId, Long userId) {
+        if (orderId != null) {
+            CHANGED.put(orderId, SEQUENCE.incrementAndGet());
+        }
+        if (userId != null) {
+            USER_VERSIONS.computeIfAbsent(userId, id -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    private static void recordUser(Long userId) {
+        CHANGED_USERS.put(userId, SEQUENCE.incrementAndGet());
+        USER_VERSIONS.computeIfAbsent(userId, id -> new AtomicLong()).incrementAndGet();
+    }
+
+    public static boolean isEmpty() {
+        return CHANGED.isEmpty() && CHANGED_USERS.isEmpty();
+    }
+
+    /**
+     * 기록된 주문 ID (ID -> 기록 순번) 사본. 읽기 모델에 반영한 뒤 acknowledge로 지운다.
+     * 반영이 끝나기 전까지 기록이 남아 있으므로, 그 사이 조회하는 쪽도 아직 반영되지 않은 변경이 있음을 안다.
+     */
+    public static Map<Long, Long> pending() {
+        return new HashMap<>(CHANGED);
+    }
+
+    public static Map<Long, Long> pendingUsers() {
+        return new HashMap<>(CHANGED_USERS);
+    }
+
+    /**
+     * 반영한 기록을 지운다. 사본을 뜬 뒤 다시 기록된 ID는 순번이 달라 남겨 두고 다음에 다시 읽는다.
+     */
+    public static void acknowledge(Map<Long, Long> orders, Map<Long, Long> users) {
+        orders.forEach(CHANGED::remove);
+        users.forEach(CHANGED_USERS::remove);
+    }
+}
@@ -6,7 +6,9 @@ import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
 @Entity
-@Table(name = "order_items")
+@Table(name = "order_items", indexes = {
+        @Index(name = "idx_order_items_order_id", columnList = "order_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -23,5 +25,12 @@ public class OrderItem {
 
     @Column(nullable = false)
     private Integer quantity;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    protected void onOrderChange() {
+        OrderChangeLog.markChanged(orderId);
+    }
 }
 
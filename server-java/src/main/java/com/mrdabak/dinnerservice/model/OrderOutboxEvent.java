@@ -0,0 +1,75 @@
+package com.mrdabak.dinnerservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * orders.db 아웃박스 - 재고 DB에 반영해야 할 명령을 주문 변경과 같은 트랜잭션에 기록한다.
+ */
+@Entity
+@Table(name = "order_outbox", indexes = {
+        @Index(name = "idx_outbox_status_available", columnList = "status, available_at"),
+        @Index(name = "idx_outbox_order", columnList = "order_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderOutboxEvent {
+
+    public static final String TYPE_RESERVE = "RESERVE";
+    public static final String TYPE_RELEASE = "RELEASE";
+    public static final String TYPE_ADJUST = "ADJUST";
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_PROCESSING = "PROCESSING";
+    public static final String STATUS_DONE = "DONE";
+    public static final String STATUS_FAILED = "FAILED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "event_type", nullable = false)
+    private String eventType;
+
+    @Column(columnDefinition = "TEXT")
+    private String payload; // JSON
+
+    @Column(nullable = false)
+    private String status = STATUS_PENDING;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    @PrePersist
+    public void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        if (availableAt == null) {
+            availableAt = createdAt;
+        }
+    }
+}
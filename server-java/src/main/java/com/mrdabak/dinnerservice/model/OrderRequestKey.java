@@ -0,0 +1,47 @@
+package com.mrdabak.dinnerservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "order_request_keys", indexes = {
+        @Index(name = "idx_request_key_created", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderRequestKey {
+
+    @Id
+    @Column(name = "request_key", length = 255)
+    private String requestKey; // "{userId}|{X-Request-ID}"
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "order_id")
+    private Long orderId; // null이면 처리 중
+
+    @Column(name = "response_status")
+    private Integer responseStatus;
+
+    @Column(name = "total_price")
+    private Integer totalPrice;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @PrePersist
+    public void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.mrdabak.dinnerservice.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * (메뉴 아이템, 날짜 윈도우)별 예약 수량 합계 - inventory_reservations를 매번 집계하지 않도록 예약 변경과 같은 트랜잭션에서 증감한다.
+ */
+@Entity
+@Table(name = "reservation_totals")
+@IdClass(ReservationTotal.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationTotal {
+
+    @Id
+    @Column(name = "menu_item_id")
+    private Long menuItemId;
+
+    @Id
+    @Column(name = "window_start")
+    private LocalDateTime windowStart;
+
+    @Column(nullable = false)
+    private Integer reserved = 0;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long menuItemId;
+        private LocalDateTime windowStart;
+    }
+}
@@ -8,7 +8,10 @@ import lombok.AllArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_role", columnList = "role, id"),
+        @Index(name = "idx_users_approval_status", columnList = "approval_status, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -78,5 +81,11 @@ public class User {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
     }
+
+    // 주문 읽기 모델에 고객/직원 이름과 연락처가 들어 있으므로 관련 주문을 다시 읽게 함
+    @PostUpdate
+    protected void onUserChange() {
+        OrderChangeLog.markUserChanged(id);
+    }
 }
 
@@ -0,0 +1,26 @@
+package com.mrdabak.dinnerservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "user_order_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserOrderStats {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "delivered_count", nullable = false)
+    private Integer deliveredCount = 0; // 배달 완료 주문 수 (단골 할인 판단용)
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
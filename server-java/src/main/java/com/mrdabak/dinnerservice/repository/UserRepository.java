@@ -1,6 +1,7 @@
 package com.mrdabak.dinnerservice.repository;
 
 import com.mrdabak.dinnerservice.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -12,6 +13,30 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
     List<User> findByRole(String role);
+
+    // 커서(keyset) 페이지 - 필터 조합마다 별도 쿼리를 써서 (role, id) / (approval_status, id) 인덱스를 그대로 탄다
+    List<User> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+    List<User> findByRoleAndIdGreaterThanOrderByIdAsc(String role, Long afterId, Pageable pageable);
+    List<User> findByApprovalStatusAndIdGreaterThanOrderByIdAsc(String approvalStatus, Long afterId, Pageable pageable);
+    List<User> findByRoleAndApprovalStatusAndIdGreaterThanOrderByIdAsc(String role, String approvalStatus,
+                                                                       Long afterId, Pageable pageable);
+
+    /**
+     * id > afterId 페이지. 역할/승인 상태 필터는 null이면 적용하지 않는다.
+     * "(:role IS NULL OR ...)" 형태의 한 쿼리는 인덱스를 쓰지 못하므로 Java에서 쿼리를 고른다.
+     */
+    default List<User> findPage(Long afterId, String role, String approvalStatus, Pageable pageable) {
+        if (role != null && approvalStatus != null) {
+            return findByRoleAndApprovalStatusAndIdGreaterThanOrderByIdAsc(role, approvalStatus, afterId, pageable);
+        }
+        if (role != null) {
+            return findByRoleAndIdGreaterThanOrderByIdAsc(role, afterId, pageable);
+        }
+        if (approvalStatus != null) {
+            return findByApprovalStatusAndIdGreaterThanOrderByIdAsc(approvalStatus, afterId, pageable);
+        }
+        return findByIdGreaterThanOrderByIdAsc(afterId, pageable);
+    }
 }
 
 
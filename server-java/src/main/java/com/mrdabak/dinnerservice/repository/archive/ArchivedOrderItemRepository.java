@@ -0,0 +1,13 @@
+package com.mrdabak.dinnerservice.repository.archive;
+
+import com.mrdabak.dinnerservice.model.ArchivedOrderItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArchivedOrderItemRepository extends JpaRepository<ArchivedOrderItem, Long> {
+    List<ArchivedOrderItem> findByOrderIdIn(Collection<Long> orderIds);
+}
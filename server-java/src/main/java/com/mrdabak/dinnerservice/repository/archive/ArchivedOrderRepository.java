@@ -0,0 +1,19 @@
+package com.mrdabak.dinnerservice.repository.archive;
+
+import com.mrdabak.dinnerservice.model.ArchivedOrder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+    // 사용자 과거 주문 (idx_archived_orders_user_created)
+    List<ArchivedOrder> findByUserIdOrderByCreatedAtDesc(Long userId);
+
+    // 사용자별 상태별 주문 수 (idx_archived_orders_user_status)
+    @Query("SELECT o.status, COUNT(o) FROM ArchivedOrder o WHERE o.userId = :userId GROUP BY o.status")
+    List<Object[]> countByStatusForUser(@Param("userId") Long userId);
+}
@@ -7,19 +7,24 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface InventoryReservationRepository extends JpaRepository<InventoryReservation, Long> {
 
-    @Query("SELECT COALESCE(SUM(r.quantity), 0) FROM InventoryReservation r " +
-            "WHERE r.menuItemId = :menuItemId " +
-            "AND r.windowStart = :windowStart")
-    Integer sumQuantityByMenuItemIdAndWindowStart(@Param("menuItemId") Long menuItemId,
-                                                  @Param("windowStart") LocalDateTime windowStart);
+    // reservation_totals 초기 채우기용 - (메뉴 아이템, 윈도우)별 합계
+    @Query("SELECT r.menuItemId, r.windowStart, SUM(r.quantity) FROM InventoryReservation r " +
+            "GROUP BY r.menuItemId, r.windowStart")
+    List<Object[]> sumQuantityByMenuItemAndWindow();
 
     List<InventoryReservation> findByOrderId(Long orderId);
 
+    boolean existsByOrderId(Long orderId);
+
+    @Query("SELECT DISTINCT r.orderId FROM InventoryReservation r WHERE r.orderId IN :orderIds")
+    List<Long> findOrderIdsIn(@Param("orderIds") Collection<Long> orderIds);
+
     void deleteByOrderId(Long orderId);
 
     @Query("SELECT r FROM InventoryReservation r WHERE r.windowStart >= :start AND r.windowStart < :end")
@@ -31,14 +36,5 @@ public interface InventoryReservationRepository extends JpaRepository<InventoryR
     
     @Query("SELECT r FROM InventoryReservation r WHERE r.consumed = false AND r.orderId = :orderId")
     List<InventoryReservation> findUnconsumedByOrderId(@Param("orderId") Long orderId);
-    
-    // 이번주 예약 수량 계산 (이번 주의 모든 예약 합산)
-    @Query("SELECT COALESCE(SUM(r.quantity), 0) FROM InventoryReservation r " +
-            "WHERE r.menuItemId = :menuItemId " +
-            "AND r.windowStart >= :weekStart " +
-            "AND r.windowStart < :weekEnd")
-    Integer sumWeeklyReservedByMenuItemId(@Param("menuItemId") Long menuItemId,
-                                         @Param("weekStart") LocalDateTime weekStart,
-                                         @Param("weekEnd") LocalDateTime weekEnd);
 }
 
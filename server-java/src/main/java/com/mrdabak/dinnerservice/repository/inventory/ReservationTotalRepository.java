@@ -0,0 +1,41 @@
+package com.mrdabak.dinnerservice.repository.inventory;
+
+import com.mrdabak.dinnerservice.model.ReservationTotal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ReservationTotalRepository extends JpaRepository<ReservationTotal, ReservationTotal.Key> {
+
+    // 행이 없으면 만들고, 있으면 원자적으로 증감 (0 미만으로 내려가지 않음) - 호출자의 inventory 트랜잭션에 참여
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO reservation_totals (menu_item_id, window_start, reserved) " +
+            "VALUES (:menuItemId, :windowStart, MAX(0, :delta)) " +
+            "ON CONFLICT(menu_item_id, window_start) DO UPDATE SET reserved = MAX(0, reserved + :delta)",
+            nativeQuery = true)
+    int addReserved(@Param("menuItemId") Long menuItemId,
+                    @Param("windowStart") LocalDateTime windowStart,
+                    @Param("delta") int delta);
+
+    @Query("SELECT COALESCE(SUM(t.reserved), 0) FROM ReservationTotal t " +
+            "WHERE t.menuItemId = :menuItemId " +
+            "AND t.windowStart = :windowStart")
+    Integer sumQuantityByMenuItemIdAndWindowStart(@Param("menuItemId") Long menuItemId,
+                                                  @Param("windowStart") LocalDateTime windowStart);
+
+    // 이번주 예약 수량 계산 (날짜별 합계 최대 7행)
+    @Query("SELECT COALESCE(SUM(t.reserved), 0) FROM ReservationTotal t " +
+            "WHERE t.menuItemId = :menuItemId " +
+            "AND t.windowStart >= :weekStart " +
+            "AND t.windowStart < :weekEnd")
+    Integer sumWeeklyReservedByMenuItemId(@Param("menuItemId") Long menuItemId,
+                                         @Param("weekStart") LocalDateTime weekStart,
+                                         @Param("weekEnd") LocalDateTime weekEnd);
+}
@@ -0,0 +1,68 @@
+package com.mrdabak.dinnerservice.repository.order;
+
+import com.mrdabak.dinnerservice.model.OrderOutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderOutboxEventRepository extends JpaRepository<OrderOutboxEvent, Long> {
+
+    // 같은 주문의 앞선 명령(대기/처리 중)이 끝난 이벤트만 - 주문별로 ID 순서대로 반영
+    @Query("SELECT e.id FROM OrderOutboxEvent e WHERE e.status = 'PENDING' AND e.availableAt <= :now " +
+            "AND NOT EXISTS (SELECT p.id FROM OrderOutboxEvent p WHERE p.orderId = e.orderId AND p.id < e.id " +
+            "AND p.status IN ('PENDING', 'PROCESSING')) ORDER BY e.id")
+    List<Long> findDispatchableIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // 처리 선점 - 영향받은 행이 1이면 이 스레드가 처리
+    // 같은 주문의 앞선 명령이 남아 있으면 선점하지 않는다 (취소 후 늦게 도착한 예약이 용량을 잡지 않도록)
+    @Modifying
+    @Transactional
+    @Query("UPDATE OrderOutboxEvent e SET e.status = 'PROCESSING', e.claimedAt = :now, e.attempts = e.attempts + 1 " +
+            "WHERE e.id = :id AND e.status = 'PENDING' " +
+            "AND NOT EXISTS (SELECT p.id FROM OrderOutboxEvent p WHERE p.orderId = e.orderId AND p.id < e.id " +
+            "AND p.status IN ('PENDING', 'PROCESSING'))")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OrderOutboxEvent e SET e.status = 'DONE', e.processedAt = :now, e.lastError = NULL WHERE e.id = :id")
+    int markDone(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OrderOutboxEvent e SET e.status = 'DONE', e.processedAt = :now, e.lastError = NULL WHERE e.id IN :ids")
+    int markAllDone(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OrderOutboxEvent e SET e.status = 'PENDING', e.availableAt = :availableAt, e.lastError = :error WHERE e.id = :id")
+    int defer(@Param("id") Long id, @Param("availableAt") LocalDateTime availableAt, @Param("error") String error);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OrderOutboxEvent e SET e.status = 'FAILED', e.processedAt = :now, e.lastError = :error WHERE e.id = :id")
+    int markFailed(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("error") String error);
+
+    // 처리 도중 서버가 내려가 PROCESSING으로 남은 이벤트를 다시 대기 상태로
+    @Modifying
+    @Transactional
+    @Query("UPDATE OrderOutboxEvent e SET e.status = 'PENDING' WHERE e.status = 'PROCESSING' AND e.claimedAt < :staleBefore")
+    int requeueStale(@Param("staleBefore") LocalDateTime staleBefore);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OrderOutboxEvent e WHERE e.status = 'DONE' AND e.processedAt < :before")
+    int deleteDoneBefore(@Param("before") LocalDateTime before);
+
+    @Transactional
+    void deleteByOrderId(Long orderId);
+}
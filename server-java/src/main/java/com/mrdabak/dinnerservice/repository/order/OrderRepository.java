@@ -1,11 +1,16 @@
 package com.mrdabak.dinnerservice.repository.order;
 
 import com.mrdabak.dinnerservice.model.Order;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,13 +20,100 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     Optional<Order> findByIdAndUserId(Long id, Long userId);
     List<Order> findByStatus(String status);
     
-    @Query("SELECT o FROM Order o WHERE o.deliveryTime LIKE :datePattern%")
-    List<Order> findByDeliveryTimeStartingWith(@Param("datePattern") String datePattern);
-    
-    @Query(value = "SELECT * FROM orders WHERE delivery_time >= :start AND delivery_time < :end", nativeQuery = true)
-    List<Order> findByDeliveryTimeBetweenNative(@Param("start") String start, @Param("end") String end);
-    
-    @Query("SELECT o FROM Order o WHERE o.userId = :userId AND o.deliveryTime = :deliveryTime AND o.deliveryAddress = :deliveryAddress")
-    List<Order> findByUserIdAndDeliveryTimeAndDeliveryAddress(@Param("userId") Long userId, @Param("deliveryTime") String deliveryTime, @Param("deliveryAddress") String deliveryAddress);
-}
+    // 배달 시간 범위 조회 (idx_orders_delivery_at) - [start, end)
+    @Query("SELECT o FROM Order o WHERE o.deliveryAt >= :start AND o.deliveryAt < :end ORDER BY o.deliveryAt")
+    List<Order> findByDeliveryAtRange(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    // delivery_at 채우기용 - 아직 값이 없는 주문을 ID 순으로
+    @Query("SELECT o FROM Order o WHERE o.deliveryAt IS NULL AND o.id > :afterId ORDER BY o.id")
+    List<Order> findWithoutDeliveryAt(@Param("afterId") Long afterId, Pageable pageable);
+
+    // 보관 대상 - 종료 상태이면서 cutoff 이전에 생성된 주문을 ID 순으로 (idx_orders_status_created)
+    @Query("SELECT o FROM Order o WHERE o.status IN :statuses AND o.createdAt < :cutoff AND o.id > :afterId ORDER BY o.id")
+    List<Order> findArchivable(@Param("statuses") Collection<String> statuses,
+                               @Param("cutoff") LocalDateTime cutoff,
+                               @Param("afterId") Long afterId,
+                               Pageable pageable);
+
+    // 최근 중복 주문 확인 - idx_orders_user_delivery_created 인덱스 사용
+    Optional<Order> findFirstByUserIdAndDeliveryTimeAndDeliveryAddressAndCreatedAtAfterOrderByCreatedAtDesc(
+            Long userId, String deliveryTime, String deliveryAddress, LocalDateTime createdAfter);
+
+    // 사용자별 배달 완료 주문 수 (user_order_stats 초기 채우기용)
+    @Query("SELECT o.userId, COUNT(o) FROM Order o WHERE LOWER(o.status) = 'delivered' GROUP BY o.userId")
+    List<Object[]> countDeliveredByUser();
+
+    // 사용자별 상태별 주문 수 (주문 통계) - idx_orders_user_status 인덱스만으로 집계
+    @Query("SELECT o.status, COUNT(o) FROM Order o WHERE o.userId = :userId GROUP BY o.status")
+    List<Object[]> countByStatusForUser(@Param("userId") Long userId);
+
+    // 상태 전이용 - 주문 전체가 아닌 사용자 ID와 상태(승인 상태 포함)만 조회
+    Optional<StatusView> findStatusById(Long id);
 
+    // 상태 compare-and-set: 현재 상태가 허용된 이전 상태일 때만 변경 (영향받은 행 수로 성공 여부 판단)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Order o SET o.status = :status WHERE o.id = :id AND o.status IN :fromStatuses")
+    int compareAndSetStatus(@Param("id") Long id,
+                            @Param("status") String status,
+                            @Param("fromStatuses") Collection<String> fromStatuses);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Order o SET o.adminApprovalStatus = :approvalStatus WHERE o.id = :id " +
+            "AND (o.adminApprovalStatus IS NULL OR UPPER(o.adminApprovalStatus) <> 'REJECTED')")
+    int updateAdminApprovalStatusUnlessRejected(@Param("id") Long id, @Param("approvalStatus") String approvalStatus);
+
+    // 승인 상태만 변경 - 주문 상태가 허용된 상태일 때만 (그 사이 취소/배달 완료되었으면 0)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Order o SET o.adminApprovalStatus = :approvalStatus WHERE o.id = :id AND o.status IN :statuses")
+    int updateAdminApprovalStatusIfStatusIn(@Param("id") Long id,
+                                            @Param("approvalStatus") String approvalStatus,
+                                            @Param("statuses") Collection<String> statuses);
+
+    // 담당 직원 배정 - 상태 열은 건드리지 않아 동시에 진행된 상태 전이를 덮어쓰지 않음
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Order o SET o.cookingEmployeeId = :cookingEmployeeId, o.deliveryEmployeeId = :deliveryEmployeeId " +
+            "WHERE o.id = :id")
+    int updateAssignedEmployees(@Param("id") Long id,
+                                @Param("cookingEmployeeId") Long cookingEmployeeId,
+                                @Param("deliveryEmployeeId") Long deliveryEmployeeId);
+
+    // 주문 수정 내용 반영 (상태/승인 상태 제외) - 주문 상태가 허용된 상태일 때만
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Order o SET o.dinnerTypeId = :dinnerTypeId, o.servingStyle = :servingStyle, " +
+            "o.deliveryTime = :deliveryTime, o.deliveryAt = :deliveryAt, o.deliveryAddress = :deliveryAddress, " +
+            "o.totalPrice = :totalPrice, o.paymentMethod = :paymentMethod " +
+            "WHERE o.id = :id AND o.status IN :statuses")
+    int updateDetailsIfStatusIn(@Param("id") Long id,
+                                @Param("dinnerTypeId") Long dinnerTypeId,
+                                @Param("servingStyle") String servingStyle,
+                                @Param("deliveryTime") String deliveryTime,
+                                @Param("deliveryAt") LocalDateTime deliveryAt,
+                                @Param("deliveryAddress") String deliveryAddress,
+                                @Param("totalPrice") Integer totalPrice,
+                                @Param("paymentMethod") String paymentMethod,
+                                @Param("statuses") Collection<String> statuses);
+
+    // delivery_at 채우기 - 다른 열은 건드리지 않음
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Order o SET o.deliveryAt = :deliveryAt WHERE o.id = :id AND o.deliveryAt IS NULL")
+    int fillDeliveryAt(@Param("id") Long id, @Param("deliveryAt") LocalDateTime deliveryAt);
+
+    // 결제 완료 - 결제 열만 UPDATE, 이미 결제된 주문이면 0
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Order o SET o.paymentStatus = 'paid', o.paymentMethod = :paymentMethod " +
+            "WHERE o.id = :id AND o.paymentStatus <> 'paid'")
+    int markPaid(@Param("id") Long id, @Param("paymentMethod") String paymentMethod);
+
+    interface StatusView {
+        Long getUserId();
+        String getStatus();
+        String getAdminApprovalStatus();
+    }
+}
@@ -0,0 +1,47 @@
+package com.mrdabak.dinnerservice.repository.order;
+
+import com.mrdabak.dinnerservice.model.OrderRequestKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface OrderRequestKeyRepository extends JpaRepository<OrderRequestKey, String> {
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OrderRequestKey k SET k.orderId = :orderId, k.totalPrice = :totalPrice, " +
+            "k.responseStatus = :responseStatus, k.completedAt = :completedAt WHERE k.requestKey = :requestKey")
+    int complete(@Param("requestKey") String requestKey,
+                 @Param("orderId") Long orderId,
+                 @Param("totalPrice") Integer totalPrice,
+                 @Param("responseStatus") Integer responseStatus,
+                 @Param("completedAt") LocalDateTime completedAt);
+
+    // 처리 중 상태로 남은 키 정리 (서버 재시작 등으로 완료되지 못한 요청)
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OrderRequestKey k WHERE k.requestKey = :requestKey AND k.orderId IS NULL AND k.createdAt < :staleBefore")
+    int deleteStaleClaim(@Param("requestKey") String requestKey, @Param("staleBefore") LocalDateTime staleBefore);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OrderRequestKey k WHERE k.requestKey = :requestKey AND k.orderId IS NULL")
+    int deleteClaim(@Param("requestKey") String requestKey);
+
+    // 주문이 삭제된(재고 거절로 폐기된) 완료 키 정리
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OrderRequestKey k WHERE k.requestKey = :requestKey AND k.orderId = :orderId")
+    int deleteCompletedFor(@Param("requestKey") String requestKey, @Param("orderId") Long orderId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OrderRequestKey k WHERE k.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,24 @@
+package com.mrdabak.dinnerservice.repository.order;
+
+import com.mrdabak.dinnerservice.model.UserOrderStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface UserOrderStatsRepository extends JpaRepository<UserOrderStats, Long> {
+
+    // 행이 없으면 만들고, 있으면 원자적으로 증감 (0 미만으로 내려가지 않음)
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO user_order_stats (user_id, delivered_count, updated_at) " +
+            "VALUES (:userId, MAX(0, :delta), :updatedAt) " +
+            "ON CONFLICT(user_id) DO UPDATE SET delivered_count = MAX(0, delivered_count + :delta), updated_at = :updatedAt",
+            nativeQuery = true)
+    int addDelivered(@Param("userId") Long userId, @Param("delta") int delta, @Param("updatedAt") LocalDateTime updatedAt);
+}
@@ -76,21 +76,23 @@ public class InventoryResetScheduler {
             if (count > 0) {
                 for (com.mrdabak.dinnerservice.model.InventoryReservation reservation : oldReservations) {
                     inventoryReservationRepository.delete(reservation);
+                    inventoryService.releaseFromLedger(reservation);
                 }
                 logger.info("[InventoryResetScheduler] 전날 재고 예약 {}개 삭제 완료", count);
             } else {
                 logger.info("[InventoryResetScheduler] 삭제할 전날 예약이 없습니다.");
             }
             
-            // 2. 당일 예약된 주문 확인하여 110% 재고 준비
-            String todayStr = today.toString(); // "2025-11-22"
+            // 2. 당일 예약된 주문 확인하여 110% 재고 준비 (delivery_at 인덱스 범위 조회)
             List<com.mrdabak.dinnerservice.model.Order> todayOrders = 
-                orderRepository.findByDeliveryTimeStartingWith(todayStr);
+                orderRepository.findByDeliveryAtRange(todayStart, tomorrowStart);
             
             if (!todayOrders.isEmpty()) {
                 // 메뉴 아이템별로 수량 집계
-                Map<Long, Integer> itemQuantities = todayOrders.stream()
-                    .flatMap(order -> orderItemRepository.findByOrderId(order.getId()).stream())
+                List<Long> todayOrderIds = todayOrders.stream()
+                    .map(com.mrdabak.dinnerservice.model.Order::getId)
+                    .collect(Collectors.toList());
+                Map<Long, Integer> itemQuantities = orderItemRepository.findByOrderIdIn(todayOrderIds).stream()
                     .collect(Collectors.groupingBy(
                         com.mrdabak.dinnerservice.model.OrderItem::getMenuItemId,
                         Collectors.summingInt(com.mrdabak.dinnerservice.model.OrderItem::getQuantity)
@@ -124,6 +126,7 @@ public class InventoryResetScheduler {
                 if (menuItem != null && !isAlcoholCategory(menuItem.getCategory())) {
                     if (reservation.getExpiresAt() != null && reservation.getExpiresAt().isBefore(LocalDateTime.now())) {
                         inventoryReservationRepository.delete(reservation);
+                        inventoryService.releaseFromLedger(reservation);
                         expiredCount++;
                     }
                 }
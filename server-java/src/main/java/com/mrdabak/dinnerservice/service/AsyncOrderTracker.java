@@ -0,0 +1,197 @@
+package com.mrdabak.dinnerservice.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 비동기 주문 접수 (POST /api/orders?async=true)
+ * 요청은 추적 ID만 받고 바로 반환되며, 주문 처리는 제한된 크기의 작업 풀에서 실행된다.
+ * 결과는 추적 ID로 조회(GET)하거나 SSE로 구독할 수 있고, 보관 기간이 지나면 정리된다.
+ */
+@Component
+public class AsyncOrderTracker {
+
+    public static final String QUEUED = "QUEUED";
+    public static final String PROCESSING = "PROCESSING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    private final ThreadPoolExecutor executor;
+    private final Map<String, Tracking> trackings = new ConcurrentHashMap<>();
+    private final long resultTtlMillis;
+    private final long emitterTimeoutMillis;
+
+    public AsyncOrderTracker(@Value("${order.async.workers:4}") int workers,
+                             @Value("${order.async.queue-capacity:200}") int queueCapacity,
+                             @Value("${order.async.result-ttl-ms:600000}") long resultTtlMillis,
+                             @Value("${order.async.emitter-timeout-ms:60000}") long emitterTimeoutMillis) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "order-async-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.resultTtlMillis = resultTtlMillis;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 주문 처리 작업 등록. 작업 풀이 가득 차면 RejectedExecutionException을 던진다.
+     */
+    public Tracking submit(Long userId, Supplier<Outcome> task) {
+        Tracking tracking = new Tracking(UUID.randomUUID().toString(), userId);
+        trackings.put(tracking.trackingId, tracking);
+        try {
+            executor.execute(() -> run(tracking, task));
+        } catch (RejectedExecutionException e) {
+            trackings.remove(tracking.trackingId);
+            throw e;
+        }
+        return tracking;
+    }
+
+    /**
+     * 추적 정보 조회 - 다른 사용자의 추적 ID는 없는 것으로 취급한다.
+     */
+    public Optional<Tracking> find(String trackingId, Long userId) {
+        Tracking tracking = trackings.get(trackingId);
+        if (tracking == null || !tracking.userId.equals(userId)) {
+            return Optional.empty();
+        }
+        return Optional.of(tracking);
+    }
+
+    public SseEmitter subscribe(Tracking tracking) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        tracking.emitters.add(emitter);
+        emitter.onCompletion(() -> tracking.emitters.remove(emitter));
+        emitter.onTimeout(() -> tracking.emitters.remove(emitter));
+        emitter.onError(error -> tracking.emitters.remove(emitter));
+        // 구독 시점의 상태를 먼저 보내고, 이미 끝난 주문이면 바로 종료
+        send(emitter, tracking);
+        if (tracking.isFinished()) {
+            tracking.emitters.remove(emitter);
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${order.async.sweep-interval-ms:60000}")
+    public void sweepExpired() {
+        long expireBefore = System.currentTimeMillis() - resultTtlMillis;
+        int before = trackings.size();
+        trackings.values().removeIf(tracking -> tracking.isFinished() && tracking.updatedAt < expireBefore);
+        int removed = before - trackings.size();
+        if (removed > 0) {
+            System.out.println("[AsyncOrderTracker] 보관 기간이 지난 주문 추적 정보 " + removed + "개 제거");
+        }
+    }
+
+    private void run(Tracking tracking, Supplier<Outcome> task) {
+        update(tracking, PROCESSING, null);
+        Outcome outcome;
+        try {
+            outcome = task.get();
+        } catch (RuntimeException e) {
+            outcome = new Outcome(400, Map.of("error", e.getMessage() != null ? e.getMessage() : "주문 처리 중 오류가 발생했습니다."));
+        } catch (Exception e) {
+            outcome = new Outcome(500, Map.of("error", "Internal server error: " + e.getMessage()));
+        }
+        update(tracking, outcome.isSuccess() ? COMPLETED : FAILED, outcome);
+    }
+
+    private void update(Tracking tracking, String status, Outcome outcome) {
+        tracking.status = status;
+        tracking.outcome = outcome;
+        tracking.updatedAt = System.currentTimeMillis();
+        for (SseEmitter emitter : tracking.emitters) {
+            send(emitter, tracking);
+            if (tracking.isFinished()) {
+                emitter.complete();
+            }
+        }
+        if (tracking.isFinished()) {
+            tracking.emitters.clear();
+        }
+    }
+
+    private void send(SseEmitter emitter, Tracking tracking) {
+        try {
+            emitter.send(SseEmitter.event().name("status").data(tracking.toMap()));
+        } catch (IOException | IllegalStateException e) {
+            tracking.emitters.remove(emitter);
+        }
+    }
+
+    /**
+     * 주문 처리 결과 (HTTP 상태 코드와 응답 본문)
+     */
+    public record Outcome(int httpStatus, Map<String, Object> body) {
+        public boolean isSuccess() {
+            // 중복 요청(409)이라도 기존 주문 ID가 있으면 접수된 것으로 본다
+            return (httpStatus >= 200 && httpStatus < 300)
+                    || (httpStatus == 409 && body != null && body.get("order_id") != null);
+        }
+    }
+
+    public static final class Tracking {
+        private final String trackingId;
+        private final Long userId;
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        private volatile String status = QUEUED;
+        private volatile Outcome outcome;
+        private volatile long updatedAt = System.currentTimeMillis();
+
+        private Tracking(String trackingId, Long userId) {
+            this.trackingId = trackingId;
+            this.userId = userId;
+        }
+
+        public String getTrackingId() {
+            return trackingId;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public boolean isFinished() {
+            return COMPLETED.equals(status) || FAILED.equals(status);
+        }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new HashMap<>();
+            map.put("tracking_id", trackingId);
+            map.put("status", status);
+            Outcome current = outcome;
+            if (current != null) {
+                map.put("http_status", current.httpStatus());
+                if (current.body() != null) {
+                    map.putAll(current.body());
+                }
+            }
+            return map;
+        }
+    }
+}
@@ -170,6 +170,33 @@ public class DeliverySchedulingService {
         return deliveryScheduleRepository.save(schedule);
     }
 
+    /**
+     * 주문 수정으로 배달 시간/주소가 바뀐 경우 기존 스케줄의 시간만 다시 계산 (담당 직원 유지)
+     */
+    @Transactional("scheduleTransactionManager")
+    public void rescheduleForOrder(Long orderId, LocalDateTime deliveryTime, String deliveryAddress) {
+        if (orderId == null || deliveryTime == null || deliveryAddress == null) {
+            throw new IllegalArgumentException("주문 ID, 배달 시간, 배달 주소는 필수입니다.");
+        }
+        DeliverySchedule schedule = deliveryScheduleRepository.findByOrderId(orderId).orElse(null);
+        if (schedule == null || "CANCELLED".equals(schedule.getStatus())) {
+            return;
+        }
+
+        int oneWayMinutes = travelTimeEstimator.estimateOneWayMinutes(deliveryAddress, deliveryTime);
+        LocalDateTime departure = deliveryTime.minusMinutes(oneWayMinutes);
+        LocalDateTime returnTime = deliveryTime.plusMinutes(oneWayMinutes);
+        validateWithinShift(departure, returnTime);
+
+        schedule.setDeliveryAddress(deliveryAddress);
+        schedule.setDepartureTime(departure);
+        schedule.setArrivalTime(deliveryTime);
+        schedule.setReturnTime(returnTime);
+        schedule.setOneWayMinutes(oneWayMinutes);
+        deliveryScheduleRepository.save(schedule);
+        System.out.println("[DeliverySchedulingService] 주문 ID " + orderId + "의 배달 스케줄 시간 변경");
+    }
+
     @Transactional("scheduleTransactionManager")
     public void releaseAssignmentForOrder(Long orderId) {
         deliveryScheduleRepository.deleteByOrderId(orderId);
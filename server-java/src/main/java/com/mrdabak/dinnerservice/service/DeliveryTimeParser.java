@@ -0,0 +1,41 @@
+package com.mrdabak.dinnerservice.service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 주문 배달 시간 문자열 파싱 (datetime-local 형식)
+ * 주문 저장 시 한 번만 파싱해 Order.deliveryAt에 담고, 이후에는 그 값을 사용한다.
+ */
+public final class DeliveryTimeParser {
+
+    private static final List<DateTimeFormatter> FORMATTERS = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE_TIME,          // "2025-11-21T10:00:00"
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm") // "2025-11-21T10:00"
+    );
+
+    private DeliveryTimeParser() {
+    }
+
+    public static LocalDateTime parse(String deliveryTime) {
+        return tryParse(deliveryTime)
+                .orElseThrow(() -> new RuntimeException("잘못된 배달 시간 형식입니다. (예: 2025-11-19T18:00 또는 2025-11-19T18:00:00)"));
+    }
+
+    public static Optional<LocalDateTime> tryParse(String deliveryTime) {
+        if (deliveryTime == null) {
+            return Optional.empty();
+        }
+        for (DateTimeFormatter formatter : FORMATTERS) {
+            try {
+                return Optional.of(LocalDateTime.parse(deliveryTime.trim(), formatter));
+            } catch (DateTimeParseException e) {
+                // 다음 포맷 시도
+            }
+        }
+        return Optional.empty();
+    }
+}
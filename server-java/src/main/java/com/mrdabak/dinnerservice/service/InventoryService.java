@@ -24,6 +24,7 @@ public class InventoryService {
     private final MenuInventoryRepository menuInventoryRepository;
     private final InventoryReservationRepository inventoryReservationRepository;
     private final MenuItemRepository menuItemRepository;
+    private final ReservationLedger reservationLedger;
 
     private final List<DayOfWeek> restockDays;
     private final LocalTime restockTime;
@@ -32,12 +33,14 @@ public class InventoryService {
     public InventoryService(MenuInventoryRepository menuInventoryRepository,
                             InventoryReservationRepository inventoryReservationRepository,
                             MenuItemRepository menuItemRepository,
+                            ReservationLedger reservationLedger,
                             @Value("${inventory.restock.days:MONDAY,FRIDAY}") String restockDaysProperty,
                             @Value("${inventory.restock.time:06:00}") String restockTimeProperty,
                             @Value("${inventory.default.capacity:20}") int defaultCapacity) {
         this.menuInventoryRepository = menuInventoryRepository;
         this.inventoryReservationRepository = inventoryReservationRepository;
         this.menuItemRepository = menuItemRepository;
+        this.reservationLedger = reservationLedger;
         this.restockDays = parseRestockDays(restockDaysProperty);
         this.restockTime = LocalTime.parse(restockTimeProperty);
         this.defaultCapacity = defaultCapacity;
@@ -58,12 +61,25 @@ public class InventoryService {
         for (Long menuItemId : aggregated.keySet()) {
             MenuInventory inventory = getInventory(menuItemId);
             inventoryMap.put(menuItemId, inventory);
-            validateCapacity(menuItemId, inventory, aggregated.get(menuItemId), window, deliveryTime);
+            validateCapacity(menuItemId, inventory, aggregated.get(menuItemId), window, deliveryTime, false);
         }
 
         return new InventoryReservationPlan(window, aggregated, deliveryTime);
     }
 
+    /**
+     * 이미 집계된 수량으로 예약 계획 생성 (아웃박스 재생용, 용량 검증은 commitReservations에서 수행)
+     */
+    public InventoryReservationPlan planFor(Map<Long, Integer> quantities, LocalDateTime deliveryTime) {
+        if (quantities == null || quantities.isEmpty()) {
+            throw new IllegalArgumentException("At least one menu item is required for reservation");
+        }
+        if (deliveryTime == null) {
+            throw new IllegalArgumentException("Delivery time is required for inventory reservation");
+        }
+        return new InventoryReservationPlan(resolveWindow(deliveryTime), quantities, deliveryTime);
+    }
+
     @Transactional("inventoryTransactionManager")
     public void commitReservations(Long orderId, InventoryReservationPlan plan) {
         if (orderId == null) {
@@ -72,45 +88,239 @@ public class InventoryService {
         if (plan == null || plan.quantities() == null || plan.quantities().isEmpty()) {
             throw new IllegalArgumentException("재고 예약 계획은 필수입니다.");
         }
+        // 아웃박스 재전송 등으로 같은 주문이 다시 들어오면 이미 반영된 것으로 처리 (멱등)
+        if (inventoryReservationRepository.existsByOrderId(orderId)) {
+            System.out.println("[InventoryService] 주문 " + orderId + "의 재고 예약이 이미 반영되어 있습니다.");
+            return;
+        }
 
+        // 1단계: 모든 항목의 용량을 장부에 잡아 둠 (롤백되면 장부에서 되돌려짐)
+        List<InventoryReservation> reservations = new ArrayList<>();
         for (Map.Entry<Long, Integer> entry : plan.quantities().entrySet()) {
             Long menuItemId = entry.getKey();
             Integer quantity = entry.getValue();
             
             // Verify menu item exists
-            if (!menuItemRepository.existsById(menuItemId)) {
-                throw new RuntimeException("메뉴 아이템을 찾을 수 없습니다: " + menuItemId);
-            }
+            com.mrdabak.dinnerservice.model.MenuItem menuItem = menuItemRepository.findById(menuItemId)
+                    .orElseThrow(() -> new RuntimeException("메뉴 아이템을 찾을 수 없습니다: " + menuItemId));
             
-            // Re-validate capacity (race condition prevention)
+            // Re-validate capacity (race condition prevention) - 장부 compare-and-add
             MenuInventory inventory = getInventory(menuItemId);
-            validateCapacity(menuItemId, inventory, quantity, plan.window(), plan.deliveryTime());
+            validateCapacity(menuItemId, inventory, quantity, plan.window(), plan.deliveryTime(), true);
 
             // 주문 시 재고 예약 저장 (조리 시작 시 소진)
-            InventoryReservation reservation = new InventoryReservation();
-            reservation.setOrderId(orderId);
-            reservation.setMenuItemId(menuItemId);
-            reservation.setQuantity(quantity);
-            reservation.setWindowStart(plan.window().start());
-            reservation.setWindowEnd(plan.window().end());
-            reservation.setDeliveryTime(plan.deliveryTime());
-            reservation.setConsumed(false);
-            
-            // 주류가 아닌 경우 3일 후 만료 설정
-            com.mrdabak.dinnerservice.model.MenuItem menuItem = menuItemRepository.findById(menuItemId).orElse(null);
-            if (menuItem != null && !isAlcoholCategory(menuItem.getCategory())) {
-                reservation.setExpiresAt(plan.deliveryTime().plusDays(3));
-            }
-            
-            InventoryReservation savedReservation = inventoryReservationRepository.save(reservation);
-            System.out.println("[InventoryService] 주문 " + orderId + " - 메뉴 아이템 " + menuItemId + " 재고 " + quantity + "개 예약 완료 (예약 ID: " + savedReservation.getId() + ")");
-            
-            // 이번주 예약 수량에 즉시 반영 확인
-            System.out.println("[InventoryService] 예약 저장 확인 - Order ID: " + orderId + ", Menu Item ID: " + menuItemId + ", Quantity: " + quantity);
+            reservations.add(newReservation(orderId, menuItem, quantity, plan));
+        }
+
+        // 2단계: 예약을 한 번에 저장 (JDBC 배치 INSERT)
+        List<InventoryReservation> savedReservations = inventoryReservationRepository.saveAll(reservations);
+        for (InventoryReservation savedReservation : savedReservations) {
+            System.out.println("[InventoryService] 주문 " + orderId + " - 메뉴 아이템 " + savedReservation.getMenuItemId() + " 재고 " + savedReservation.getQuantity() + "개 예약 완료 (예약 ID: " + savedReservation.getId() + ")");
         }
         System.out.println("[InventoryService] 주문 " + orderId + "의 모든 재고 예약이 완료되었습니다.");
     }
     
+    /**
+     * 여러 주문의 예약을 한 트랜잭션으로 반영 (대량 주문 등록)
+     * 용량은 (메뉴 아이템, 날짜)별 합계로 한 번씩만 검증하고 예약 행은 한 번에 저장한다.
+     * 이미 예약이 있는 주문은 건너뛴다 (멱등).
+     */
+    @Transactional("inventoryTransactionManager")
+    public void commitReservationsBatch(Map<Long, InventoryReservationPlan> plansByOrder) {
+        if (plansByOrder == null || plansByOrder.isEmpty()) {
+            return;
+        }
+        Set<Long> alreadyReserved = new HashSet<>(inventoryReservationRepository.findOrderIdsIn(plansByOrder.keySet()));
+
+        // (메뉴 아이템, 윈도우)별 수요 합계
+        Map<Long, Map<LocalDateTime, Integer>> demand = new HashMap<>();
+        Map<LocalDateTime, InventoryReservationPlan> windowSamples = new HashMap<>();
+        for (Map.Entry<Long, InventoryReservationPlan> entry : plansByOrder.entrySet()) {
+            if (alreadyReserved.contains(entry.getKey())) {
+                continue;
+            }
+            InventoryReservationPlan plan = entry.getValue();
+            windowSamples.putIfAbsent(plan.window().start(), plan);
+            plan.quantities().forEach((menuItemId, quantity) -> demand
+                    .computeIfAbsent(menuItemId, key -> new HashMap<>())
+                    .merge(plan.window().start(), quantity, Integer::sum));
+        }
+        if (demand.isEmpty()) {
+            return;
+        }
+
+        // 1단계: 메뉴 아이템을 한 번에 조회하고 (아이템, 날짜)별로 용량 검증
+        Map<Long, MenuItem> menuItems = new HashMap<>();
+        for (MenuItem menuItem : menuItemRepository.findAllById(demand.keySet())) {
+            menuItems.put(menuItem.getId(), menuItem);
+        }
+        for (Map.Entry<Long, Map<LocalDateTime, Integer>> entry : demand.entrySet()) {
+            Long menuItemId = entry.getKey();
+            if (!menuItems.containsKey(menuItemId)) {
+                throw new RuntimeException("메뉴 아이템을 찾을 수 없습니다: " + menuItemId);
+            }
+            MenuInventory inventory = getInventory(menuItemId);
+            for (Map.Entry<LocalDateTime, Integer> window : entry.getValue().entrySet()) {
+                InventoryReservationPlan sample = windowSamples.get(window.getKey());
+                validateCapacity(menuItemId, inventory, window.getValue(), sample.window(), sample.deliveryTime(), true);
+            }
+        }
+
+        // 2단계: 예약을 한 번에 저장 (JDBC 배치 INSERT)
+        List<InventoryReservation> reservations = new ArrayList<>();
+        for (Map.Entry<Long, InventoryReservationPlan> entry : plansByOrder.entrySet()) {
+            if (alreadyReserved.contains(entry.getKey())) {
+                continue;
+            }
+            InventoryReservationPlan plan = entry.getValue();
+            plan.quantities().forEach((menuItemId, quantity) ->
+                    reservations.add(newReservation(entry.getKey(), menuItems.get(menuItemId), quantity, plan)));
+        }
+        inventoryReservationRepository.saveAll(reservations);
+        System.out.println("[InventoryService] 주문 " + (plansByOrder.size() - alreadyReserved.size())
+                + "건의 재고 예약 " + reservations.size() + "개를 한 번에 저장했습니다.");
+    }
+
+    /**
+     * 주문 수정용 예약 조정 검증 - 늘어나는 수량(또는 다른 날짜로 옮겨지는 항목)만 용량을 확인한다.
+     */
+    public InventoryReservationPlan prepareAdjustment(Long orderId, List<OrderItemDto> items, LocalDateTime deliveryTime) {
+        if (orderId == null) {
+            throw new IllegalArgumentException("주문 ID는 필수입니다.");
+        }
+        if (deliveryTime == null) {
+            throw new IllegalArgumentException("Delivery time is required for inventory reservation");
+        }
+        InventoryReservationPlan plan = new InventoryReservationPlan(resolveWindow(deliveryTime), aggregateQuantities(items), deliveryTime);
+        validateAdjustment(plan, groupByMenuItem(inventoryReservationRepository.findByOrderId(orderId)), false);
+        return plan;
+    }
+
+    /**
+     * 주문 수정 반영 - 기존 예약 행을 수량/날짜만 바꿔 갱신하고, 빠진 항목은 삭제, 새 항목만 추가한다.
+     * 목표 상태로 맞추는 방식이라 같은 조정을 다시 적용해도 결과가 같다 (아웃박스 재전송 대비).
+     */
+    @Transactional("inventoryTransactionManager")
+    public void adjustReservations(Long orderId, InventoryReservationPlan plan) {
+        if (orderId == null) {
+            throw new IllegalArgumentException("주문 ID는 필수입니다.");
+        }
+        if (plan == null || plan.quantities() == null || plan.quantities().isEmpty()) {
+            throw new IllegalArgumentException("재고 예약 계획은 필수입니다.");
+        }
+
+        Map<Long, List<InventoryReservation>> existing = groupByMenuItem(inventoryReservationRepository.findByOrderId(orderId));
+
+        // 1단계: 늘어나는 항목만 용량 재검증 (늘어난 만큼 장부에 잡아 둠)
+        validateAdjustment(plan, existing, true);
+
+        // 줄어드는 (메뉴 아이템, 날짜)는 커밋 후 장부에서 뺀다 - 다른 날짜로 옮겨진 기존 예약 포함
+        for (Map.Entry<Long, List<InventoryReservation>> entry : existing.entrySet()) {
+            Map<LocalDateTime, Integer> previous = new HashMap<>();
+            for (InventoryReservation reservation : entry.getValue()) {
+                previous.merge(reservation.getWindowStart(), reservation.getQuantity() != null ? reservation.getQuantity() : 0, Integer::sum);
+            }
+            Integer target = plan.quantities().get(entry.getKey());
+            previous.forEach((windowStart, quantity) -> {
+                int remaining = target != null && plan.window().start().equals(windowStart) ? target : 0;
+                if (quantity > remaining) {
+                    reservationLedger.release(entry.getKey(), windowStart, quantity - remaining);
+                }
+            });
+        }
+
+        // 2단계: 바뀐 행만 갱신/추가/삭제
+        List<InventoryReservation> changed = new ArrayList<>();
+        List<InventoryReservation> removed = new ArrayList<>();
+        for (Map.Entry<Long, Integer> entry : plan.quantities().entrySet()) {
+            Long menuItemId = entry.getKey();
+            Integer quantity = entry.getValue();
+            List<InventoryReservation> rows = existing.remove(menuItemId);
+            if (rows == null || rows.isEmpty()) {
+                MenuItem menuItem = menuItemRepository.findById(menuItemId)
+                        .orElseThrow(() -> new RuntimeException("메뉴 아이템을 찾을 수 없습니다: " + menuItemId));
+                changed.add(newReservation(orderId, menuItem, quantity, plan));
+                continue;
+            }
+            // 같은 메뉴 아이템의 예약이 여러 행이면 첫 행으로 합친다
+            InventoryReservation reservation = rows.get(0);
+            removed.addAll(rows.subList(1, rows.size()));
+            if (moveReservation(reservation, quantity, plan)) {
+                changed.add(reservation);
+            }
+        }
+        existing.values().forEach(removed::addAll);
+
+        if (!changed.isEmpty()) {
+            inventoryReservationRepository.saveAll(changed);
+        }
+        if (!removed.isEmpty()) {
+            inventoryReservationRepository.deleteAll(removed);
+        }
+        System.out.println("[InventoryService] 주문 " + orderId + "의 재고 예약 조정 완료 - 변경/추가: "
+                + changed.size() + "개, 삭제: " + removed.size() + "개");
+    }
+
+    private void validateAdjustment(InventoryReservationPlan plan, Map<Long, List<InventoryReservation>> existing, boolean reserve) {
+        for (Map.Entry<Long, Integer> entry : plan.quantities().entrySet()) {
+            Long menuItemId = entry.getKey();
+            int reservedInWindow = 0;
+            for (InventoryReservation reservation : existing.getOrDefault(menuItemId, List.of())) {
+                if (Boolean.TRUE.equals(reservation.getConsumed())) {
+                    throw new RuntimeException("이미 조리가 시작된 주문은 수정할 수 없습니다.");
+                }
+                if (plan.window().start().equals(reservation.getWindowStart())) {
+                    reservedInWindow += reservation.getQuantity() != null ? reservation.getQuantity() : 0;
+                }
+            }
+            int delta = entry.getValue() - reservedInWindow;
+            if (delta > 0) {
+                validateCapacity(menuItemId, getInventory(menuItemId), delta, plan.window(), plan.deliveryTime(), reserve);
+            }
+        }
+    }
+
+    private boolean moveReservation(InventoryReservation reservation, Integer quantity, InventoryReservationPlan plan) {
+        if (quantity.equals(reservation.getQuantity())
+                && plan.window().start().equals(reservation.getWindowStart())
+                && plan.deliveryTime().equals(reservation.getDeliveryTime())) {
+            return false;
+        }
+        reservation.setQuantity(quantity);
+        reservation.setWindowStart(plan.window().start());
+        reservation.setWindowEnd(plan.window().end());
+        reservation.setDeliveryTime(plan.deliveryTime());
+        if (reservation.getExpiresAt() != null) {
+            reservation.setExpiresAt(plan.deliveryTime().plusDays(3));
+        }
+        return true;
+    }
+
+    private Map<Long, List<InventoryReservation>> groupByMenuItem(List<InventoryReservation> reservations) {
+        Map<Long, List<InventoryReservation>> grouped = new HashMap<>();
+        for (InventoryReservation reservation : reservations) {
+            grouped.computeIfAbsent(reservation.getMenuItemId(), key -> new ArrayList<>()).add(reservation);
+        }
+        return grouped;
+    }
+
+    private InventoryReservation newReservation(Long orderId, MenuItem menuItem, Integer quantity, InventoryReservationPlan plan) {
+        InventoryReservation reservation = new InventoryReservation();
+        reservation.setOrderId(orderId);
+        reservation.setMenuItemId(menuItem.getId());
+        reservation.setQuantity(quantity);
+        reservation.setWindowStart(plan.window().start());
+        reservation.setWindowEnd(plan.window().end());
+        reservation.setDeliveryTime(plan.deliveryTime());
+        reservation.setConsumed(false);
+
+        // 주류가 아닌 경우 3일 후 만료 설정
+        if (!isAlcoholCategory(menuItem.getCategory())) {
+            reservation.setExpiresAt(plan.deliveryTime().plusDays(3));
+        }
+        return reservation;
+    }
+
     private boolean isAlcoholCategory(String category) {
         if (category == null) return false;
         String lowerCategory = category.toLowerCase();
@@ -134,6 +344,9 @@ public class InventoryService {
             
             int count = reservations.size();
             inventoryReservationRepository.deleteByOrderId(orderId);
+            for (InventoryReservation reservation : reservations) {
+                releaseFromLedger(reservation);
+            }
             System.out.println("[InventoryService] 주문 " + orderId + "의 재고 예약 " + count + "개가 취소되었습니다.");
         } catch (Exception e) {
             System.err.println("[InventoryService] 재고 예약 취소 중 오류 발생: " + e.getMessage());
@@ -216,19 +429,11 @@ public class InventoryService {
         LocalDateTime weekEndDateTime = LocalDateTime.of(weekEnd, LocalTime.MIN);
         
         return menuInventoryRepository.findAll().stream().map(inventory -> {
-            // 현재 날짜의 예약 수량
-            Integer reserved = inventoryReservationRepository
-                    .sumQuantityByMenuItemIdAndWindowStart(inventory.getMenuItemId(), currentWindow.start());
-            if (reserved == null) {
-                reserved = 0;
-            }
+            // 현재 날짜의 예약 수량 (장부)
+            int reserved = reservationLedger.reserved(inventory.getMenuItemId(), currentWindow.start());
             
-            // 이번주 예약 수량 (이번 주의 모든 예약 합산)
-            Integer weeklyReserved = inventoryReservationRepository
-                    .sumWeeklyReservedByMenuItemId(inventory.getMenuItemId(), weekStartDateTime, weekEndDateTime);
-            if (weeklyReserved == null) {
-                weeklyReserved = 0;
-            }
+            // 이번주 예약 수량 (reservation_totals의 이번 주 날짜별 합계)
+            int weeklyReserved = reservationLedger.reservedBetween(inventory.getMenuItemId(), weekStartDateTime, weekEndDateTime);
             
             return new InventorySnapshot(
                     inventory,
@@ -341,18 +546,20 @@ public class InventoryService {
         return aggregated;
     }
 
-    private void validateCapacity(Long menuItemId, MenuInventory inventory, Integer requestedQuantity, RestockWindow window) {
-        validateCapacity(menuItemId, inventory, requestedQuantity, window, null);
+    /**
+     * 재고 예약 삭제를 장부에 반영 (현재 트랜잭션 커밋 후). 예약 행을 직접 지우는 스케줄러에서도 사용한다.
+     */
+    public void releaseFromLedger(InventoryReservation reservation) {
+        reservationLedger.release(reservation.getMenuItemId(), reservation.getWindowStart(),
+                reservation.getQuantity() != null ? reservation.getQuantity() : 0);
     }
-    
-    private void validateCapacity(Long menuItemId, MenuInventory inventory, Integer requestedQuantity, RestockWindow window, LocalDateTime deliveryTime) {
-        Integer alreadyReserved = inventoryReservationRepository
-                .sumQuantityByMenuItemIdAndWindowStart(menuItemId, window.start());
-        if (alreadyReserved == null) {
-            alreadyReserved = 0;
-        }
-        int projected = alreadyReserved + requestedQuantity;
-        
+
+    /**
+     * 용량 검증 - 예약 합계는 SQL 대신 ReservationLedger에서 읽는다.
+     * reserve=true면 검증과 동시에 장부에 수량을 더한다 (compare-and-add, 트랜잭션 롤백 시 되돌림).
+     */
+    private void validateCapacity(Long menuItemId, MenuInventory inventory, Integer requestedQuantity, RestockWindow window,
+                                  LocalDateTime deliveryTime, boolean reserve) {
         // 3일 이하 예약은 현재 보유량 초과 불가, 3일 이상은 초과 가능
         boolean allowExceedCapacity = false;
         if (deliveryTime != null) {
@@ -363,8 +570,11 @@ public class InventoryService {
         }
         
         int maxCapacity = allowExceedCapacity ? Integer.MAX_VALUE : inventory.getCapacityPerWindow();
+        ReservationLedger.Attempt attempt = reserve
+                ? reservationLedger.reserve(menuItemId, window.start(), requestedQuantity, maxCapacity)
+                : reservationLedger.check(menuItemId, window.start(), requestedQuantity, maxCapacity);
         
-        if (projected > maxCapacity) {
+        if (!attempt.accepted()) {
             String menuName = menuItemRepository.findById(menuItemId)
                     .map(item -> item.getName() + "(" + item.getNameEn() + ")")
                     .orElse("menu item " + menuItemId);
@@ -372,7 +582,7 @@ public class InventoryService {
                     "%s 재고가 부족합니다. (요청: %d, 현재 예약: %d, 최대: %d)",
                     menuName,
                     requestedQuantity,
-                    alreadyReserved,
+                    attempt.alreadyReserved(),
                     maxCapacity
             ));
         }
@@ -0,0 +1,192 @@
+package com.mrdabak.dinnerservice.service;
+
+import com.mrdabak.dinnerservice.model.DinnerType;
+import com.mrdabak.dinnerservice.model.MenuCatalogVersion;
+import com.mrdabak.dinnerservice.model.MenuItem;
+import com.mrdabak.dinnerservice.repository.DinnerTypeRepository;
+import com.mrdabak.dinnerservice.repository.MenuItemRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 주문 가격 계산용 가격표 (메모리)
+ * 디너 기본가 × 서빙 스타일 배율, 메뉴 아이템 단가를 ID로 인덱싱한 배열에 미리 계산해 둔다.
+ * 메뉴/디너가 변경되면(MenuCatalogVersion) 다음 조회 시 한 번 다시 읽으므로,
+ * 주문마다 메뉴 DB를 조회하지 않고 객체 할당 없이 가격을 계산한다.
+ * 배열 크기는 menu.pricing.max-indexed-id까지만 잡고, 그보다 큰 ID는 맵에 따로 보관한다.
+ */
+@Component
+public class MenuPricingTable {
+
+    public static final int NOT_FOUND = -1;
+
+    // 서빙 스타일 순서: simple, grand, deluxe
+    private static final double[] STYLE_MULTIPLIERS = {1.0, 1.3, 1.6};
+    private static final int STYLE_SIMPLE = 0;
+    private static final int STYLE_GRAND = 1;
+    private static final int STYLE_DELUXE = 2;
+    private static final int STYLE_OTHER = -1;
+
+    private final MenuItemRepository menuItemRepository;
+    private final DinnerTypeRepository dinnerTypeRepository;
+    private final int maxIndexedId;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public MenuPricingTable(MenuItemRepository menuItemRepository,
+                            DinnerTypeRepository dinnerTypeRepository,
+                            @Value("${menu.pricing.max-indexed-id:100000}") int maxIndexedId) {
+        this.menuItemRepository = menuItemRepository;
+        this.dinnerTypeRepository = dinnerTypeRepository;
+        this.maxIndexedId = maxIndexedId;
+    }
+
+    /**
+     * 디너 기본가 × 스타일 배율. 디너가 없으면 NOT_FOUND.
+     */
+    public double dinnerPrice(Long dinnerTypeId, String servingStyle) {
+        Snapshot current = current();
+        int index = indexOf(dinnerTypeId, current.dinnerBasePrices.length);
+        int basePrice = index >= 0 ? current.dinnerBasePrices[index] : overflowPrice(current.dinnerOverflow, dinnerTypeId);
+        if (basePrice == NOT_FOUND) {
+            return NOT_FOUND;
+        }
+        int style = styleIndex(servingStyle);
+        double multiplier = style == STYLE_OTHER ? 1.0 : STYLE_MULTIPLIERS[style];
+        return basePrice * multiplier;
+    }
+
+    /**
+     * 그랜드/디럭스 스타일만 주문 가능한 디너인지 (샴페인 축제 디너)
+     */
+    public boolean requiresPremiumStyle(Long dinnerTypeId) {
+        Snapshot current = current();
+        int index = indexOf(dinnerTypeId, current.premiumOnly.length);
+        return index >= 0 ? current.premiumOnly[index] : current.premiumOverflow.contains(dinnerTypeId);
+    }
+
+    public boolean isPremiumStyle(String servingStyle) {
+        int style = styleIndex(servingStyle);
+        return style == STYLE_GRAND || style == STYLE_DELUXE;
+    }
+
+    /**
+     * 메뉴 아이템 단가. 없는 아이템이면 NOT_FOUND.
+     */
+    public int menuItemPrice(Long menuItemId) {
+        Snapshot current = current();
+        int index = indexOf(menuItemId, current.menuItemPrices.length);
+        return index >= 0 ? current.menuItemPrices[index] : overflowPrice(current.menuItemOverflow, menuItemId);
+    }
+
+    public long version() {
+        return current().version;
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        long catalogVersion = MenuCatalogVersion.current();
+        if (current.version == catalogVersion) {
+            return current;
+        }
+        return reload(catalogVersion);
+    }
+
+    private synchronized Snapshot reload(long catalogVersion) {
+        Snapshot current = snapshot;
+        if (current.version == catalogVersion) {
+            return current;
+        }
+        List<MenuItem> menuItems = menuItemRepository.findAll();
+        List<DinnerType> dinnerTypes = dinnerTypeRepository.findAll();
+
+        int[] menuItemPrices = newPriceArray(menuItems.stream().mapToLong(item -> idOrZero(item.getId())).max().orElse(0));
+        Map<Long, Integer> menuItemOverflow = new HashMap<>();
+        for (MenuItem item : menuItems) {
+            if (item.getId() == null || item.getPrice() == null) {
+                continue;
+            }
+            int index = indexOf(item.getId(), menuItemPrices.length);
+            if (index >= 0) {
+                menuItemPrices[index] = item.getPrice();
+            } else {
+                menuItemOverflow.put(item.getId(), item.getPrice());
+            }
+        }
+
+        int[] dinnerBasePrices = newPriceArray(dinnerTypes.stream().mapToLong(dinner -> idOrZero(dinner.getId())).max().orElse(0));
+        boolean[] premiumOnly = new boolean[dinnerBasePrices.length];
+        Map<Long, Integer> dinnerOverflow = new HashMap<>();
+        Set<Long> premiumOverflow = new HashSet<>();
+        for (DinnerType dinner : dinnerTypes) {
+            if (dinner.getId() == null || dinner.getBasePrice() == null) {
+                continue;
+            }
+            boolean premium = dinner.getName() != null && dinner.getName().contains("샴페인");
+            int index = indexOf(dinner.getId(), dinnerBasePrices.length);
+            if (index >= 0) {
+                dinnerBasePrices[index] = dinner.getBasePrice();
+                premiumOnly[index] = premium;
+            } else {
+                dinnerOverflow.put(dinner.getId(), dinner.getBasePrice());
+                if (premium) {
+                    premiumOverflow.add(dinner.getId());
+                }
+            }
+        }
+
+        Snapshot reloaded = new Snapshot(catalogVersion, menuItemPrices, dinnerBasePrices, premiumOnly,
+                menuItemOverflow, dinnerOverflow, premiumOverflow);
+        snapshot = reloaded;
+        System.out.println("[MenuPricingTable] 가격표 갱신 - 버전: " + catalogVersion
+                + ", 메뉴 아이템: " + menuItems.size() + "개, 디너: " + dinnerTypes.size() + "개");
+        return reloaded;
+    }
+
+    private int[] newPriceArray(long maxId) {
+        int[] prices = new int[(int) Math.min(maxId, maxIndexedId) + 1];
+        Arrays.fill(prices, NOT_FOUND);
+        return prices;
+    }
+
+    // 배열 범위를 벗어난 (max-indexed-id보다 큰) ID
+    private static int overflowPrice(Map<Long, Integer> overflow, Long id) {
+        Integer price = id != null ? overflow.get(id) : null;
+        return price != null ? price : NOT_FOUND;
+    }
+
+    private static long idOrZero(Long id) {
+        return id != null ? id : 0;
+    }
+
+    private static int indexOf(Long id, int length) {
+        if (id == null || id < 0 || id >= length) {
+            return -1;
+        }
+        return (int) (long) id;
+    }
+
+    private static int styleIndex(String servingStyle) {
+        if (servingStyle == null) {
+            return STYLE_OTHER;
+        }
+        return switch (servingStyle) {
+            case "simple" -> STYLE_SIMPLE;
+            case "grand" -> STYLE_GRAND;
+            case "deluxe" -> STYLE_DELUXE;
+            default -> STYLE_OTHER;
+        };
+    }
+
+    private record Snapshot(long version, int[] menuItemPrices, int[] dinnerBasePrices, boolean[] premiumOnly,
+                            Map<Long, Integer> menuItemOverflow, Map<Long, Integer> dinnerOverflow, Set<Long> premiumOverflow) {
+        private static final Snapshot EMPTY = new Snapshot(0, new int[0], new int[0], new boolean[0], Map.of(), Map.of(), Set.of());
+    }
+}
@@ -0,0 +1,50 @@
+package com.mrdabak.dinnerservice.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 주문 접수 직렬화 (사용자 단위)
+ * 같은 계정의 주문 요청만 순서대로 처리하고, 서로 다른 고객의 주문은 병렬로 진행된다.
+ * 락은 고정 개수의 스트라이프로 나누어 두므로 사용자 수가 늘어나도 메모리 사용량은 일정하다.
+ */
+@Component
+public class OrderAdmissionGate {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public OrderAdmissionGate(@Value("${order.admission.stripes:64}") int stripeCount) {
+        int size = 1;
+        while (size < Math.max(1, stripeCount)) {
+            size <<= 1;
+        }
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    public <T> T admit(Long userId, Supplier<T> action) {
+        if (userId == null) {
+            throw new IllegalArgumentException("사용자 ID는 필수입니다.");
+        }
+        ReentrantLock lock = lockFor(userId);
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock lockFor(Long userId) {
+        int hash = Long.hashCode(userId);
+        hash ^= (hash >>> 16);
+        return stripes[hash & mask];
+    }
+}
@@ -0,0 +1,147 @@
+package com.mrdabak.dinnerservice.service;
+
+import com.mrdabak.dinnerservice.model.ArchivedOrder;
+import com.mrdabak.dinnerservice.model.ArchivedOrderItem;
+import com.mrdabak.dinnerservice.model.Order;
+import com.mrdabak.dinnerservice.model.OrderItem;
+import com.mrdabak.dinnerservice.repository.archive.ArchivedOrderItemRepository;
+import com.mrdabak.dinnerservice.repository.archive.ArchivedOrderRepository;
+import com.mrdabak.dinnerservice.repository.order.OrderItemRepository;
+import com.mrdabak.dinnerservice.repository.order.OrderRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 종료된 주문 보관 (orders.db → orders-archive.db)
+ * 배달 완료/취소 후 일정 기간이 지난 주문과 주문 항목을 묶음 단위로 보관 DB에 복사한 뒤 orders.db에서 지운다.
+ * 진행 중인 주문만 orders.db에 남으므로 전체 조회(findAll/findByStatus)와 읽기 모델 크기가 계속 늘지 않는다.
+ *
+ * 두 DB를 한 트랜잭션으로 묶을 수 없어 "복사 → 삭제" 순서로 진행한다.
+ * 복사 후 삭제 전에 중단되면 다음 실행에서 같은 주문을 다시 복사(덮어쓰기)하고 지우므로 주문이 사라지지 않는다.
+ */
+@Component
+public class OrderArchiveService {
+
+    private static final List<String> CLOSED_STATUSES = List.of("delivered", "cancelled");
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final ArchivedOrderItemRepository archivedOrderItemRepository;
+    private final OrderViewAssembler orderViewAssembler;
+    private final TransactionTemplate orderTransactionTemplate;
+    private final TransactionTemplate archiveTransactionTemplate;
+    private final int retentionDays;
+    private final int batchSize;
+
+    public OrderArchiveService(OrderRepository orderRepository,
+                               OrderItemRepository orderItemRepository,
+                               ArchivedOrderRepository archivedOrderRepository,
+                               ArchivedOrderItemRepository archivedOrderItemRepository,
+                               OrderViewAssembler orderViewAssembler,
+                               @Qualifier("orderTransactionManager") PlatformTransactionManager orderTransactionManager,
+                               @Qualifier("archiveTransactionManager") PlatformTransactionManager archiveTransactionManager,
+                               @Value("${order.archive.retention-days:90}") int retentionDays,
+                               @Value("${order.archive.batch-size:200}") int batchSize) {
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.archivedOrderItemRepository = archivedOrderItemRepository;
+        this.orderViewAssembler = orderViewAssembler;
+        this.orderTransactionTemplate = new TransactionTemplate(orderTransactionManager);
+        this.archiveTransactionTemplate = new TransactionTemplate(archiveTransactionManager);
+        this.retentionDays = retentionDays;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${order.archive.cron:0 30 3 * * *}")
+    public void scheduledArchive() {
+        try {
+            archiveClosedOrders();
+        } catch (Exception e) {
+            System.err.println("[OrderArchiveService] 주문 보관 실패: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 보관 기간이 지난 종료 주문을 옮긴다. 옮긴 주문 수를 반환한다.
+     */
+    public int archiveClosedOrders() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        long lastId = 0L;
+        int archived = 0;
+        while (true) {
+            List<Order> batch = orderRepository.findArchivable(CLOSED_STATUSES, cutoff, lastId, PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+            lastId = batch.get(batch.size() - 1).getId();
+            archived += archiveBatch(batch, cutoff);
+        }
+        if (archived > 0) {
+            System.out.println("[OrderArchiveService] 종료된 주문 " + archived + "건 보관 (" + retentionDays + "일 경과)");
+        }
+        return archived;
+    }
+
+    private int archiveBatch(List<Order> batch, LocalDateTime cutoff) {
+        Set<Long> orderIds = new HashSet<>();
+        batch.forEach(order -> orderIds.add(order.getId()));
+        List<OrderItem> items = orderItemRepository.findByOrderIdIn(orderIds);
+
+        // 1) 보관 DB에 복사 (같은 ID가 있으면 덮어씀)
+        LocalDateTime now = LocalDateTime.now();
+        archiveTransactionTemplate.executeWithoutResult(status -> {
+            archivedOrderRepository.saveAll(batch.stream().map(order -> ArchivedOrder.from(order, now)).toList());
+            archivedOrderItemRepository.saveAll(items.stream().map(ArchivedOrderItem::from).toList());
+        });
+
+        // 2) orders.db에서 삭제 - 복사 이후 상태가 바뀐 주문(상태 되돌리기 등)은 남겨 둔다
+        Set<Long> deleted = orderTransactionTemplate.execute(status -> {
+            List<Order> current = orderRepository.findAllById(orderIds).stream()
+                    .filter(order -> CLOSED_STATUSES.contains(order.getStatus())
+                            && order.getCreatedAt() != null && order.getCreatedAt().isBefore(cutoff))
+                    .toList();
+            Set<Long> ids = new HashSet<>();
+            current.forEach(order -> ids.add(order.getId()));
+            // 엔티티 단위 삭제 - OrderChangeLog 콜백으로 읽기 모델/ETag에도 반영됨
+            orderItemRepository.deleteAll(orderItemRepository.findByOrderIdIn(ids));
+            orderRepository.deleteAll(current);
+            return ids;
+        });
+
+        // 3) 남겨 둔 주문의 보관 사본은 지워 양쪽에 중복으로 보이지 않게 함
+        List<Long> kept = new ArrayList<>(orderIds);
+        kept.removeAll(deleted);
+        if (!kept.isEmpty()) {
+            archiveTransactionTemplate.executeWithoutResult(status -> {
+                archivedOrderItemRepository.deleteAll(archivedOrderItemRepository.findByOrderIdIn(kept));
+                archivedOrderRepository.deleteAllById(kept);
+            });
+        }
+        return deleted.size();
+    }
+
+    /**
+     * 사용자의 보관된 주문 (최신순) - 과거 주문까지 요청한 조회에서만 사용
+     */
+    public List<OrderReadModel.OrderView> archivedOrdersForUser(Long userId) {
+        List<Order> orders = archivedOrderRepository.findByUserIdOrderByCreatedAtDesc(userId).stream()
+                .map(ArchivedOrder::toOrder)
+                .toList();
+        return orderViewAssembler.assemble(orders, orderIds -> archivedOrderItemRepository.findByOrderIdIn(orderIds).stream()
+                .map(ArchivedOrderItem::toOrderItem)
+                .toList());
+    }
+}
@@ -0,0 +1,388 @@
+package com.mrdabak.dinnerservice.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.mrdabak.dinnerservice.dto.OrderItemDto;
+import com.mrdabak.dinnerservice.dto.OrderRequest;
+import com.mrdabak.dinnerservice.model.Order;
+import com.mrdabak.dinnerservice.model.OrderItem;
+import com.mrdabak.dinnerservice.model.OrderOutboxEvent;
+import com.mrdabak.dinnerservice.model.User;
+import com.mrdabak.dinnerservice.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 대량 주문 등록 (POST /api/orders/bulk, NDJSON 또는 CSV)
+ * 1. 행별 검증/가격 계산을 작업 풀에서 병렬로 수행 (메모리 가격표만 사용)
+ * 2. 재고 수요를 (메뉴 아이템, 배달 날짜)별로 합산해 날짜마다 한 번만 용량 확인 (넘치면 넘치는 행만 제외)
+ * 3. 주문은 group-commit writer로 묶어 저장하고, 저장된 주문끼리 재고 예약을 inventory.db 한 트랜잭션으로 반영
+ * 행별 결과는 확정되는 대로 NDJSON 한 줄씩 응답에 흘려보낸다.
+ */
+@Service
+public class OrderBulkImportService {
+
+    public static final String STATUS_CREATED = "created";
+    public static final String STATUS_ACCEPTED = "accepted";
+    public static final String STATUS_REJECTED = "rejected";
+
+    private final OrderService orderService;
+    private final InventoryService inventoryService;
+    private final OrderGroupCommitWriter orderGroupCommitWriter;
+    private final OrderOutboxRelay orderOutboxRelay;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService workers;
+    private final int maxRows;
+
+    public OrderBulkImportService(OrderService orderService,
+                                  InventoryService inventoryService,
+                                  OrderGroupCommitWriter orderGroupCommitWriter,
+                                  OrderOutboxRelay orderOutboxRelay,
+                                  UserRepository userRepository,
+                                  ObjectMapper objectMapper,
+                                  @Value("${order.bulk.workers:4}") int workers,
+                                  @Value("${order.bulk.max-rows:1000}") int maxRows) {
+        this.orderService = orderService;
+        this.inventoryService = inventoryService;
+        this.orderGroupCommitWriter = orderGroupCommitWriter;
+        this.orderOutboxRelay = orderOutboxRelay;
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "order-bulk-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.maxRows = maxRows;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    /**
+     * 요청 본문을 행 단위로 읽는다. 형식 오류가 있는 행은 오류와 함께 그대로 돌려주어 결과에 포함시킨다.
+     */
+    public List<ImportRow> parse(InputStream body, String contentType) throws IOException {
+        boolean csv = contentType != null && contentType.toLowerCase().contains("csv");
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        List<ImportRow> rows = new ArrayList<>();
+        List<String> header = null;
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (csv && header == null) {
+                header = splitCsv(line).stream().map(column -> column.trim().toLowerCase()).toList();
+                continue;
+            }
+            if (rows.size() >= maxRows) {
+                throw new IllegalArgumentException("한 번에 등록할 수 있는 주문은 최대 " + maxRows + "건입니다.");
+            }
+            rows.add(csv ? parseCsvRow(lineNumber, header, line) : parseJsonRow(lineNumber, line));
+        }
+        return rows;
+    }
+
+    /**
+     * 대량 등록 실행 - 행별 결과와 마지막 요약을 NDJSON으로 out에 기록한다.
+     */
+    public void importOrders(Long userId, List<ImportRow> rows, OutputStream out) throws IOException {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("사용자를 찾을 수 없습니다."));
+        boolean loyaltyEligible = orderService.isLoyaltyEligible(user);
+        long startedAt = System.currentTimeMillis();
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        counts.put(STATUS_CREATED, 0);
+        counts.put(STATUS_ACCEPTED, 0);
+        counts.put(STATUS_REJECTED, 0);
+
+        // 1단계: 병렬 검증/가격 계산 - 실패한 행은 완료되는 대로 바로 응답
+        CompletionService<PreparedRow> completion = new ExecutorCompletionService<>(workers);
+        int submitted = 0;
+        for (ImportRow row : rows) {
+            if (row.error() != null) {
+                writeResult(out, counts, row, STATUS_REJECTED, null, row.error());
+                continue;
+            }
+            completion.submit(() -> prepare(userId, row, loyaltyEligible));
+            submitted++;
+        }
+        List<PreparedRow> prepared = new ArrayList<>();
+        for (int i = 0; i < submitted; i++) {
+            PreparedRow result = take(completion);
+            if (result.error() != null) {
+                writeResult(out, counts, result.row(), STATUS_REJECTED, null, result.error());
+            } else {
+                prepared.add(result);
+            }
+        }
+        prepared.sort(Comparator.comparingInt(result -> result.row().line()));
+
+        // 2단계: (메뉴 아이템, 배달 날짜)별 수요 합산 후 날짜마다 한 번 용량 확인
+        // 날짜 전체가 들어가지 않으면 행 순서대로 하나씩 더해 보며 넘치는 행만 제외한다
+        // (받아들인 행의 메뉴별 수요 합계를 유지하고, 각 행은 그 행이 쓰는 메뉴만 누적 수량으로 확인)
+        Map<LocalDate, List<PreparedRow>> byDay = new TreeMap<>();
+        for (PreparedRow result : prepared) {
+            byDay.computeIfAbsent(result.order().deliveryTime().toLocalDate(), key -> new ArrayList<>()).add(result);
+        }
+        List<PreparedRow> accepted = new ArrayList<>();
+        for (List<PreparedRow> day : byDay.values()) {
+            Map<Long, Integer> dayDemand = new LinkedHashMap<>();
+            day.forEach(result -> result.quantities().forEach((menuItemId, quantity) ->
+                    dayDemand.merge(menuItemId, quantity, Integer::sum)));
+            if (fits(dayDemand, day.get(0).order().deliveryTime()) == null) {
+                accepted.addAll(day);
+                continue;
+            }
+            Map<Long, Integer> keptDemand = new HashMap<>();
+            for (PreparedRow result : day) {
+                Map<Long, Integer> rowDemand = new LinkedHashMap<>();
+                result.quantities().forEach((menuItemId, quantity) ->
+                        rowDemand.put(menuItemId, keptDemand.getOrDefault(menuItemId, 0) + quantity));
+                String error = fits(rowDemand, result.order().deliveryTime());
+                if (error == null) {
+                    keptDemand.putAll(rowDemand);
+                    accepted.add(result);
+                } else {
+                    writeResult(out, counts, result.row(), STATUS_REJECTED, null, error);
+                }
+            }
+        }
+
+        // 3단계: 주문 + 재고 예약 명령을 writer에 넣는다 (tick마다 묶음 커밋)
+        List<CompletableFuture<Order>> writes = new ArrayList<>();
+        List<OrderOutboxEvent> events = new ArrayList<>();
+        BlockingQueue<Integer> completed = new LinkedBlockingQueue<>();
+        for (PreparedRow result : accepted) {
+            OrderOutboxEvent event = orderOutboxRelay.reserveEvent(
+                    inventoryService.planFor(result.quantities(), result.order().deliveryTime()));
+            events.add(event);
+            int index = writes.size();
+            CompletableFuture<Order> write = orderGroupCommitWriter.submit(result.order().order(), result.order().items(), event);
+            write.whenComplete((order, error) -> completed.add(index));
+            writes.add(write);
+        }
+
+        // 4단계: 저장이 끝난 주문부터 (그때까지 끝난 것끼리 묶어) 재고 예약을 반영하고 결과를 바로 응답
+        int remaining = writes.size();
+        while (remaining > 0) {
+            List<Integer> ready = new ArrayList<>();
+            try {
+                ready.add(completed.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Bulk import interrupted", e);
+            }
+            completed.drainTo(ready);
+            remaining -= ready.size();
+
+            List<Integer> saved = new ArrayList<>();
+            List<Long> eventIds = new ArrayList<>();
+            for (Integer index : ready) {
+                try {
+                    writes.get(index).join();
+                    saved.add(index);
+                    eventIds.add(events.get(index).getId());
+                } catch (CompletionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    writeResult(out, counts, accepted.get(index).row(), STATUS_REJECTED, null, "주문 저장 실패: " + cause.getMessage());
+                }
+            }
+            Map<Long, OrderOutboxRelay.Dispatch> dispatches = orderOutboxRelay.dispatchAll(eventIds);
+            for (Integer index : saved) {
+                Order order = writes.get(index).join();
+                Long eventId = events.get(index).getId();
+                OrderOutboxRelay.Dispatch dispatch = dispatches.get(eventId);
+                if (dispatch.result() == OrderOutboxRelay.DispatchResult.REJECTED) {
+                    orderOutboxRelay.discardRejectedOrder(order.getId(), eventId, dispatch.error());
+                    writeResult(out, counts, accepted.get(index).row(), STATUS_REJECTED, null, dispatch.error());
+                } else {
+                    // DEFERRED: 주문은 저장됐고 재고 반영은 릴레이가 이어서 처리
+                    String status = dispatch.result() == OrderOutboxRelay.DispatchResult.APPLIED ? STATUS_CREATED : STATUS_ACCEPTED;
+                    writeResult(out, counts, accepted.get(index).row(), status, order, null);
+                }
+            }
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("summary", true);
+        summary.put("total", rows.size());
+        summary.putAll(counts);
+        summary.put("elapsed_ms", System.currentTimeMillis() - startedAt);
+        writeLine(out, summary);
+        System.out.println("[OrderBulkImportService] 사용자 " + userId + " 대량 주문 등록 - 전체: " + rows.size() + ", 결과: " + counts);
+    }
+
+    private PreparedRow prepare(Long userId, ImportRow row, boolean loyaltyEligible) {
+        try {
+            OrderService.PreparedOrder order = orderService.prepareOrder(userId, row.request(), loyaltyEligible);
+            Map<Long, Integer> quantities = new LinkedHashMap<>();
+            for (OrderItem item : order.items()) {
+                quantities.merge(item.getMenuItemId(), item.getQuantity(), Integer::sum);
+            }
+            return new PreparedRow(row, order, quantities, null);
+        } catch (RuntimeException e) {
+            return new PreparedRow(row, null, null, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * 메뉴별 수요가 배달 날짜의 재고 용량 안에 들어가는지 확인한다. 들어가면 null, 아니면 재고 서비스의 오류 메시지.
+     */
+    private String fits(Map<Long, Integer> demand, LocalDateTime deliveryTime) {
+        List<OrderItemDto> items = new ArrayList<>();
+        demand.forEach((menuItemId, quantity) -> items.add(new OrderItemDto(menuItemId, quantity)));
+        try {
+            inventoryService.prepareReservations(items, deliveryTime);
+            return null;
+        } catch (RuntimeException e) {
+            return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        }
+    }
+
+    private PreparedRow take(CompletionService<PreparedRow> completion) {
+        try {
+            return completion.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Bulk import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private void writeResult(OutputStream out, Map<String, Integer> counts, ImportRow row,
+                             String status, Order order, String error) throws IOException {
+        counts.merge(status, 1, Integer::sum);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("row", row.line());
+        if (row.ref() != null) {
+            result.put("ref", row.ref());
+        }
+        result.put("status", status);
+        if (order != null) {
+            result.put("order_id", order.getId());
+            result.put("total_price", order.getTotalPrice());
+        }
+        if (error != null) {
+            result.put("error", error);
+        }
+        writeLine(out, result);
+    }
+
+    private void writeLine(OutputStream out, Map<String, Object> line) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(line));
+        out.write('\n');
+        out.flush();
+    }
+
+    private ImportRow parseJsonRow(int lineNumber, String line) {
+        String ref = null;
+        try {
+            JsonNode node = objectMapper.readTree(line);
+            if (!(node instanceof ObjectNode object)) {
+                throw new IllegalArgumentException("주문은 JSON 객체여야 합니다.");
+            }
+            // ref는 결과 매칭용 클라이언트 참조값이라 주문 요청에서는 제외
+            JsonNode refNode = object.remove("ref");
+            ref = refNode != null && !refNode.isNull() ? refNode.asText() : null;
+            return new ImportRow(lineNumber, ref, objectMapper.treeToValue(object, OrderRequest.class), null);
+        } catch (Exception e) {
+            return new ImportRow(lineNumber, ref, null, "JSON 형식 오류: " + e.getMessage());
+        }
+    }
+
+    // CSV 열: ref, dinner_type_id, serving_style, delivery_time, delivery_address, payment_method, items ("메뉴ID:수량;메뉴ID:수량")
+    private ImportRow parseCsvRow(int lineNumber, List<String> header, String line) {
+        List<String> values = splitCsv(line);
+        Map<String, String> columns = new HashMap<>();
+        for (int i = 0; i < header.size() && i < values.size(); i++) {
+            columns.put(header.get(i), values.get(i).trim());
+        }
+        String ref = blankToNull(columns.get("ref"));
+        try {
+            OrderRequest request = new OrderRequest();
+            String dinnerTypeId = blankToNull(columns.get("dinner_type_id"));
+            request.setDinnerTypeId(dinnerTypeId != null ? Long.valueOf(dinnerTypeId) : null);
+            request.setServingStyle(blankToNull(columns.get("serving_style")));
+            request.setDeliveryTime(blankToNull(columns.get("delivery_time")));
+            request.setDeliveryAddress(blankToNull(columns.get("delivery_address")));
+            request.setPaymentMethod(blankToNull(columns.get("payment_method")));
+            List<OrderItemDto> items = new ArrayList<>();
+            String itemsColumn = columns.get("items");
+            if (itemsColumn != null) {
+                for (String entry : itemsColumn.split(";")) {
+                    if (entry.isBlank()) {
+                        continue;
+                    }
+                    String[] parts = entry.split(":");
+                    if (parts.length != 2) {
+                        throw new IllegalArgumentException("items 형식 오류: " + entry);
+                    }
+                    items.add(new OrderItemDto(Long.valueOf(parts[0].trim()), Integer.valueOf(parts[1].trim())));
+                }
+            }
+            request.setItems(items);
+            return new ImportRow(lineNumber, ref, request, null);
+        } catch (IllegalArgumentException e) {
+            return new ImportRow(lineNumber, ref, null, "CSV 형식 오류: " + e.getMessage());
+        }
+    }
+
+    private static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    public record ImportRow(int line, String ref, OrderRequest request, String error) { }
+
+    private record PreparedRow(ImportRow row, OrderService.PreparedOrder order, Map<Long, Integer> quantities, String error) { }
+}
@@ -0,0 +1,74 @@
+package com.mrdabak.dinnerservice.service;
+
+import com.mrdabak.dinnerservice.model.Order;
+import com.mrdabak.dinnerservice.model.OrderChangeLog;
+import com.mrdabak.dinnerservice.repository.order.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * delivery_at 컬럼 채우기
+ * 컬럼 추가 이전에 저장된 주문은 delivery_at이 비어 있으므로, 시작 시 delivery_time 문자열을 한 번 파싱해 채운다.
+ * 새 주문은 저장 시점에 채워지므로 이후에는 대상이 없다.
+ */
+@Component
+public class OrderDeliveryTimeBackfill {
+
+    private static final int PAGE_SIZE = 500;
+
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate orderTransactionTemplate;
+
+    public OrderDeliveryTimeBackfill(OrderRepository orderRepository,
+                                     @Qualifier("orderTransactionManager") PlatformTransactionManager orderTransactionManager) {
+        this.orderRepository = orderRepository;
+        this.orderTransactionTemplate = new TransactionTemplate(orderTransactionManager);
+    }
+
+    @PostConstruct
+    public void backfill() {
+        try {
+            long lastId = 0L;
+            int filled = 0;
+            int unparsable = 0;
+            while (true) {
+                final long afterId = lastId;
+                List<Order> page = orderRepository.findWithoutDeliveryAt(afterId, PageRequest.of(0, PAGE_SIZE));
+                if (page.isEmpty()) {
+                    break;
+                }
+                Map<Long, LocalDateTime> parsed = new LinkedHashMap<>();
+                for (Order order : page) {
+                    // 파싱할 수 없는 주문은 건너뛰고 다음 페이지로 진행 (같은 행을 반복 조회하지 않도록 ID 기준)
+                    DeliveryTimeParser.tryParse(order.getDeliveryTime())
+                            .ifPresent(deliveryAt -> parsed.put(order.getId(), deliveryAt));
+                    lastId = order.getId();
+                }
+                unparsable += page.size() - parsed.size();
+                if (!parsed.isEmpty()) {
+                    // delivery_at 열만 UPDATE - 읽은 뒤 바뀐 상태 등을 전체 엔티티 저장으로 덮어쓰지 않도록
+                    orderTransactionTemplate.executeWithoutResult(status -> parsed.forEach((orderId, deliveryAt) -> {
+                        orderRepository.fillDeliveryAt(orderId, deliveryAt);
+                        OrderChangeLog.markChanged(orderId);
+                    }));
+                    filled += parsed.size();
+                }
+            }
+            if (filled > 0 || unparsable > 0) {
+                System.out.println("[OrderDeliveryTimeBackfill] 기존 주문 " + filled + "건의 delivery_at 채움"
+                        + (unparsable > 0 ? " (형식 오류 " + unparsable + "건 제외)" : ""));
+            }
+        } catch (Exception e) {
+            System.err.println("[OrderDeliveryTimeBackfill] delivery_at 채우기 실패: " + e.getMessage());
+        }
+    }
+}
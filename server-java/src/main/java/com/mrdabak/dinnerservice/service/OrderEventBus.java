@@ -0,0 +1,270 @@
+package com.mrdabak.dinnerservice.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * 주문 상태 변경 이벤트 버스 (SSE)
+ * 상태 전이/관리자 승인·반려가 커밋되면 이벤트를 구독자별 버퍼에 넣고, 소수의 전송 스레드가 SSE로 내보낸다.
+ * 고객은 자기 주문만, 직원은 승인된 주문만, 관리자는 전체 주문 이벤트를 받는다.
+ *
+ * 구독자마다 버퍼 크기가 제한되어 있어 느린 연결이 메모리를 계속 차지하지 않으며,
+ * 버퍼가 넘치면 오래된 이벤트를 버리고 "resync" 이벤트로 목록을 다시 불러오라고 알린다.
+ * 유휴 연결에는 스레드를 두지 않고 주기적인 heartbeat 주석만 보내 끊긴 연결을 정리한다.
+ * heartbeat도 구독자에 표시만 해 두고 전송 스레드가 보내므로, 공용 스케줄러 스레드는 네트워크 쓰기로 막히지 않는다.
+ */
+@Component
+public class OrderEventBus {
+
+    public static final String TYPE_STATUS = "status";
+    public static final String TYPE_APPROVAL = "approval";
+
+    private final Map<Long, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final BlockingQueue<Subscriber> ready = new LinkedBlockingQueue<>();
+    private final AtomicLong subscriberIds = new AtomicLong();
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long emitterTimeoutMillis;
+    private final int dispatchThreads;
+    private final List<Thread> dispatchers = new ArrayList<>();
+
+    private volatile boolean running;
+
+    public OrderEventBus(@Value("${order.events.buffer-size:64}") int bufferSize,
+                         @Value("${order.events.max-subscribers:5000}") int maxSubscribers,
+                         @Value("${order.events.emitter-timeout-ms:1800000}") long emitterTimeoutMillis,
+                         @Value("${order.events.dispatch-threads:2}") int dispatchThreads) {
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        this.dispatchThreads = dispatchThreads;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        for (int i = 1; i <= dispatchThreads; i++) {
+            Thread thread = new Thread(this::dispatchLoop, "order-events-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            dispatchers.add(thread);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        dispatchers.forEach(Thread::interrupt);
+        subscribers.values().forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    /**
+     * 고객 구독 - 자기 주문 이벤트만
+     */
+    public SseEmitter subscribeCustomer(Long userId) {
+        return subscribe(event -> userId.equals(event.userId()));
+    }
+
+    /**
+     * 직원/관리자 구독 - 관리자는 전체, 직원은 승인된 주문만 (직원 주문 목록과 같은 기준)
+     */
+    public SseEmitter subscribeStaff(boolean isAdmin) {
+        return subscribe(event -> isAdmin || "APPROVED".equalsIgnoreCase(event.adminApprovalStatus()));
+    }
+
+    /**
+     * 이벤트 발행. 현재 트랜잭션이 있으면 커밋된 뒤에만 전달되고, 롤백되면 버려진다.
+     */
+    public void publish(OrderEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            deliver(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                deliver(event);
+            }
+        });
+    }
+
+    public void publishStatus(Long orderId, Long userId, String previousStatus, String status, String adminApprovalStatus) {
+        publish(new OrderEvent(TYPE_STATUS, orderId, userId, previousStatus, status, adminApprovalStatus, LocalDateTime.now()));
+    }
+
+    public void publishApproval(Long orderId, Long userId, String status, String adminApprovalStatus) {
+        publish(new OrderEvent(TYPE_APPROVAL, orderId, userId, status, status, adminApprovalStatus, LocalDateTime.now()));
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @Scheduled(fixedDelayString = "${order.events.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers.values()) {
+            subscriber.heartbeatDue.set(true);
+            schedule(subscriber);
+        }
+    }
+
+    private SseEmitter subscribe(Predicate<OrderEvent> filter) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new IllegalStateException("주문 이벤트 구독자가 너무 많습니다. 잠시 후 다시 시도해주세요.");
+        }
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Subscriber subscriber = new Subscriber(subscriberIds.incrementAndGet(), emitter, filter, bufferSize);
+        subscribers.put(subscriber.id, subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber.id));
+        emitter.onTimeout(() -> subscribers.remove(subscriber.id));
+        emitter.onError(error -> subscribers.remove(subscriber.id));
+        try {
+            // 연결 직후 응답을 열어 두기 위한 첫 이벤트
+            emitter.send(SseEmitter.event().name("subscribed").data(Map.of("subscriber_id", subscriber.id)));
+        } catch (IOException e) {
+            remove(subscriber);
+        }
+        return emitter;
+    }
+
+    private void deliver(OrderEvent event) {
+        for (Subscriber subscriber : subscribers.values()) {
+            if (subscriber.filter.test(event)) {
+                subscriber.enqueue(event);
+                schedule(subscriber);
+            }
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            ready.offer(subscriber);
+        }
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                Subscriber subscriber = ready.poll(500, TimeUnit.MILLISECONDS);
+                if (subscriber != null) {
+                    flush(subscriber);
+                }
+            } catch (InterruptedException e) {
+                if (!running) {
+                    break;
+                }
+            } catch (Exception e) {
+                System.err.println("[OrderEventBus] 이벤트 전송 오류: " + e.getMessage());
+            }
+        }
+    }
+
+    private void flush(Subscriber subscriber) {
+        // 꺼내기 전에 표시를 풀어, 전송 중 들어온 이벤트가 다시 예약되도록 함
+        subscriber.scheduled.set(false);
+        // 같은 구독자를 두 전송 스레드가 동시에 비우면 이벤트 순서가 섞이므로 구독자 단위로 직렬화
+        synchronized (subscriber) {
+            sendBuffered(subscriber);
+        }
+    }
+
+    private void sendBuffered(Subscriber subscriber) {
+        try {
+            if (subscriber.overflowed.getAndSet(false)) {
+                subscriber.emitter.send(SseEmitter.event().name("resync").data(Map.of("reason", "buffer_overflow")));
+            }
+            OrderEvent event;
+            boolean sent = false;
+            while ((event = subscriber.buffer.poll()) != null) {
+                subscriber.emitter.send(SseEmitter.event().name("order").data(event.toMap()));
+                sent = true;
+            }
+            // 방금 이벤트를 보냈으면 연결 확인이 된 것이므로 heartbeat는 생략
+            if (subscriber.heartbeatDue.getAndSet(false) && !sent) {
+                subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+            }
+        } catch (IOException | IllegalStateException e) {
+            remove(subscriber);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.remove(subscriber.id);
+        subscriber.buffer.clear();
+        try {
+            subscriber.emitter.complete();
+        } catch (Exception ignored) {
+            // 이미 닫힌 연결
+        }
+    }
+
+    private static final class Subscriber {
+        private final long id;
+        private final SseEmitter emitter;
+        private final Predicate<OrderEvent> filter;
+        private final BlockingQueue<OrderEvent> buffer;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean overflowed = new AtomicBoolean();
+        private final AtomicBoolean heartbeatDue = new AtomicBoolean();
+
+        private Subscriber(long id, SseEmitter emitter, Predicate<OrderEvent> filter, int bufferSize) {
+            this.id = id;
+            this.emitter = emitter;
+            this.filter = filter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        private void enqueue(OrderEvent event) {
+            while (!buffer.offer(event)) {
+                // 가장 오래된 이벤트를 버리고 클라이언트에 재동기화를 요청
+                buffer.poll();
+                overflowed.set(true);
+            }
+        }
+    }
+
+    /**
+     * 주문 이벤트. 승인 이벤트는 상태가 바뀌지 않으므로 previousStatus와 status가 같다.
+     */
+    public record OrderEvent(String type,
+                             Long orderId,
+                             Long userId,
+                             String previousStatus,
+                             String status,
+                             String adminApprovalStatus,
+                             LocalDateTime at) {
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new HashMap<>();
+            map.put("type", type);
+            map.put("order_id", orderId);
+            map.put("user_id", userId);
+            map.put("previous_status", previousStatus);
+            map.put("status", status);
+            map.put("admin_approval_status", adminApprovalStatus);
+            map.put("at", at.toString());
+            return map;
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.mrdabak.dinnerservice.service;
+
+import com.mrdabak.dinnerservice.model.Order;
+import com.mrdabak.dinnerservice.model.OrderItem;
+import com.mrdabak.dinnerservice.model.OrderOutboxEvent;
+import com.mrdabak.dinnerservice.repository.order.OrderItemRepository;
+import com.mrdabak.dinnerservice.repository.order.OrderOutboxEventRepository;
+import com.mrdabak.dinnerservice.repository.order.OrderRepository;
+import com.mrdabak.dinnerservice.repository.order.OrderRequestKeyRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * orders.db 단일 writer (group commit)
+ * 요청 스레드는 검증이 끝난 주문을 큐에 넣고 결과를 기다린다.
+ * writer 스레드 하나가 큐에 쌓인 주문을 모아 tick마다 하나의 트랜잭션으로 저장하므로
+ * 주문 생성끼리 SQLite 쓰기 락을 두고 경쟁하지 않는다.
+ */
+@Component
+public class OrderGroupCommitWriter {
+
+    private static final int QUEUED = 0;
+    private static final int WRITING = 1;
+    private static final int CANCELLED = 2;
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final OrderOutboxEventRepository outboxRepository;
+    private final OrderRequestKeyRepository orderRequestKeyRepository;
+    private final TransactionTemplate orderTransactionTemplate;
+    private final EntityManagerFactory orderEntityManagerFactory;
+    private final SqliteRetryPolicy sqliteRetryPolicy;
+    private final BlockingQueue<PendingWrite> queue;
+    private final int maxBatchSize;
+    private final long lingerMillis;
+    private final long timeoutMillis;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public OrderGroupCommitWriter(OrderRepository orderRepository,
+                                  OrderItemRepository orderItemRepository,
+                                  OrderOutboxEventRepository outboxRepository,
+                                  OrderRequestKeyRepository orderRequestKeyRepository,
+                                  @Qualifier("orderTransactionManager") PlatformTransactionManager orderTransactionManager,
+                                  @Qualifier("orderEntityManagerFactory") EntityManagerFactory orderEntityManagerFactory,
+                                  SqliteRetryPolicy sqliteRetryPolicy,
+                                  @Value("${order.writer.queue-capacity:1000}") int queueCapacity,
+                                  @Value("${order.writer.max-batch:64}") int maxBatchSize,
+                                  @Value("${order.writer.linger-ms:5}") long lingerMillis,
+                                  @Value("${order.writer.timeout-ms:30000}") long timeoutMillis) {
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.outboxRepository = outboxRepository;
+        this.orderRequestKeyRepository = orderRequestKeyRepository;
+        this.orderTransactionTemplate = new TransactionTemplate(orderTransactionManager);
+        this.orderEntityManagerFactory = orderEntityManagerFactory;
+        this.sqliteRetryPolicy = sqliteRetryPolicy;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatchSize = maxBatchSize;
+        this.lingerMillis = lingerMillis;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writerThread = new Thread(this::runLoop, "order-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (writerThread != null) {
+            writerThread.interrupt();
+        }
+    }
+
+    /**
+     * 주문과 주문 항목, 아웃박스 이벤트(없으면 null)를 같은 트랜잭션으로 저장하고 저장된 주문을 반환한다.
+     */
+    public Order write(Order order, List<OrderItem> items, OrderOutboxEvent outboxEvent) {
+        return write(order, items, outboxEvent, null);
+    }
+
+    /**
+     * requestKey(선점된 order_request_keys 키, 없으면 null)의 완료 기록도 주문과 같은 트랜잭션으로 남긴다.
+     * 주문이 커밋되면 키도 반드시 완료 상태이므로, 같은 요청 ID로 재전송해도 주문이 다시 만들어지지 않는다.
+     */
+    public Order write(Order order, List<OrderItem> items, OrderOutboxEvent outboxEvent, String requestKey) {
+        // 호출자가 이미 orders.db 트랜잭션을 잡고 있으면 writer를 기다리면 자기 자신의 락을 기다리게 되므로 직접 저장
+        if (inOrderTransaction()) {
+            return orderTransactionTemplate.execute(status -> persist(order, items, outboxEvent, requestKey));
+        }
+
+        PendingWrite pending = new PendingWrite(order, items, outboxEvent, requestKey);
+        if (!queue.offer(pending)) {
+            throw new RuntimeException("주문 처리량이 많아 잠시 후 다시 시도해주세요.");
+        }
+        try {
+            return pending.future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (pending.state.compareAndSet(QUEUED, CANCELLED)) {
+                throw new RuntimeException("주문 저장 대기 시간이 초과되었습니다. 다시 시도해주세요.");
+            }
+            // 이미 저장 중이면 결과를 끝까지 기다린다 (저장된 주문을 잃지 않도록)
+            return awaitWriting(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Order creation interrupted", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * 결과를 기다리지 않고 저장 요청만 넣는다 (대량 등록용). 큐가 가득 차면 자리가 날 때까지 대기한다.
+     */
+    public CompletableFuture<Order> submit(Order order, List<OrderItem> items, OrderOutboxEvent outboxEvent) {
+        PendingWrite pending = new PendingWrite(order, items, outboxEvent, null);
+        try {
+            if (!queue.offer(pending, timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new RuntimeException("주문 처리량이 많아 잠시 후 다시 시도해주세요.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Order creation interrupted", e);
+        }
+        return pending.future;
+    }
+
+    public boolean inOrderTransaction() {
+        return TransactionSynchronizationManager.hasResource(orderEntityManagerFactory);
+    }
+
+    private Order awaitWriting(PendingWrite pending) {
+        try {
+            return pending.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Order creation interrupted", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private void runLoop() {
+        while (running) {
+            try {
+                PendingWrite first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<PendingWrite> batch = new ArrayList<>();
+                addIfQueued(batch, first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingWrite next = remaining > 0
+                            ? queue.poll(remaining, TimeUnit.NANOSECONDS)
+                            : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    addIfQueued(batch, next);
+                }
+                if (!batch.isEmpty()) {
+                    writeBatch(batch);
+                }
+            } catch (InterruptedException e) {
+                if (!running) {
+                    break;
+                }
+            } catch (Exception e) {
+                System.err.println("[OrderGroupCommitWriter] writer 루프 오류: " + e.getMessage());
+            }
+        }
+        // 종료 시 남은 요청은 실패 처리
+        PendingWrite pending;
+        while ((pending = queue.poll()) != null) {
+            pending.future.completeExceptionally(new RuntimeException("서버가 종료 중입니다."));
+        }
+    }
+
+    private void addIfQueued(List<PendingWrite> batch, PendingWrite pending) {
+        if (pending.state.compareAndSet(QUEUED, WRITING)) {
+            batch.add(pending);
+        }
+    }
+
+    private void writeBatch(List<PendingWrite> batch) {
+        try {
+            List<Order> saved = commitWithLockRetry(batch);
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).future.complete(saved.get(i));
+            }
+            if (batch.size() > 1) {
+                System.out.println("[OrderGroupCommitWriter] 주문 " + batch.size() + "건을 하나의 트랜잭션으로 저장");
+            }
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).future.completeExceptionally(e);
+                return;
+            }
+            // 한 건의 오류가 같은 tick의 다른 주문까지 실패시키지 않도록 개별 저장으로 재시도
+            for (PendingWrite pending : batch) {
+                try {
+                    pending.future.complete(commitWithLockRetry(List.of(pending)).get(0));
+                } catch (RuntimeException single) {
+                    pending.future.completeExceptionally(single);
+                }
+            }
+        }
+    }
+
+    private List<Order> commitWithLockRetry(List<PendingWrite> batch) {
+        return sqliteRetryPolicy.execute("orders.write", () -> {
+            // 롤백된 이전 시도에서 할당된 ID는 버리고 새로 저장
+            resetIds(batch);
+            return orderTransactionTemplate.execute(status -> {
+                List<Order> saved = new ArrayList<>(batch.size());
+                for (PendingWrite pending : batch) {
+                    saved.add(persist(pending.order, pending.items, pending.outboxEvent, pending.requestKey));
+                }
+                return saved;
+            });
+        });
+    }
+
+    private Order persist(Order order, List<OrderItem> items, OrderOutboxEvent outboxEvent, String requestKey) {
+        Order savedOrder = orderRepository.save(order);
+        for (OrderItem item : items) {
+            item.setOrderId(savedOrder.getId());
+        }
+        orderItemRepository.saveAll(items);
+        if (outboxEvent != null) {
+            outboxEvent.setOrderId(savedOrder.getId());
+            outboxRepository.save(outboxEvent);
+        }
+        if (requestKey != null) {
+            int completed = orderRequestKeyRepository.complete(requestKey, savedOrder.getId(), savedOrder.getTotalPrice(),
+                    201, LocalDateTime.now());
+            if (completed != 1) {
+                // 선점이 만료되어 정리된 키 - 다른 요청이 같은 키를 다시 잡았을 수 있으므로 주문도 저장하지 않음
+                throw new IllegalStateException("주문 요청 키 선점이 만료되었습니다. 다시 시도해주세요.");
+            }
+        }
+        return savedOrder;
+    }
+
+    private void resetIds(List<PendingWrite> batch) {
+        for (PendingWrite pending : batch) {
+            pending.order.setId(null);
+            pending.items.forEach(item -> item.setId(null));
+            if (pending.outboxEvent != null) {
+                pending.outboxEvent.setId(null);
+            }
+        }
+    }
+
+    private RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new RuntimeException(cause != null ? cause.getMessage() : e.getMessage(), cause);
+    }
+
+    private static final class PendingWrite {
+        private final Order order;
+        private final List<OrderItem> items;
+        private final OrderOutboxEvent outboxEvent;
+        private final String requestKey;
+        private final CompletableFuture<Order> future = new CompletableFuture<>();
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+
+        private PendingWrite(Order order, List<OrderItem> items, OrderOutboxEvent outboxEvent, String requestKey) {
+            this.order = order;
+            this.items = items;
+            this.outboxEvent = outboxEvent;
+            this.requestKey = requestKey;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.mrdabak.dinnerservice.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 주문 중복 방지용 만료 저장소
+ * - Request ID 키, (사용자, 배달 시간, 주소) 키, 사용자별 마지막 주문 시간을 각각 O(1)로 조회한다.
+ * - 만료된 항목은 조회 시 무시되고, 스케줄러가 주기적으로 한 번에 정리한다. (주문마다 Timer 스레드를 만들지 않음)
+ * - 항목 수가 상한을 넘으면 만료가 가장 이른 항목부터 제거한다.
+ *   TTL이 고정이라 넣은 순서가 곧 만료 순서이므로, 넣은 순서의 큐 앞에서부터 꺼내 정렬 없이 제거한다.
+ */
+@Component
+public class OrderIdempotencyStore {
+
+    public static final long IN_FLIGHT = -1L; // 처리 중인 주문 표시
+
+    private final ExpiringIndex<RequestKey> requestKeys = new ExpiringIndex<>();
+    private final ExpiringIndex<Fingerprint> fingerprints = new ExpiringIndex<>();
+    private final ExpiringIndex<Long> lastOrderTimes = new ExpiringIndex<>();
+
+    private final long ttlMillis;
+    private final int maxEntries;
+
+    public OrderIdempotencyStore(@Value("${order.idempotency.ttl-ms:50000}") long ttlMillis,
+                                 @Value("${order.idempotency.max-entries:10000}") int maxEntries) {
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+    }
+
+    public long ttlMillis() {
+        return ttlMillis;
+    }
+
+    /**
+     * 같은 계정의 마지막 주문 이후 남은 제한 시간(ms). 제한이 없으면 0.
+     */
+    public long remainingThrottleMillis(Long userId, long now) {
+        Entry entry = lastOrderTimes.get(userId);
+        if (entry == null || entry.isExpired(now)) {
+            return 0;
+        }
+        return entry.expiresAt() - now;
+    }
+
+    public Long findByRequestId(Long userId, String requestId, long now) {
+        return orderIdOf(requestKeys.get(new RequestKey(userId, requestId)), now);
+    }
+
+    public Long findByFingerprint(Long userId, String deliveryTime, String deliveryAddress, long now) {
+        return orderIdOf(fingerprints.get(new Fingerprint(userId, deliveryTime, deliveryAddress)), now);
+    }
+
+    /**
+     * 주문 처리 시작 기록. requestId가 없으면 (배달 시간, 주소) 기준으로 기록한다.
+     */
+    public void markInFlight(Long userId, String requestId, String deliveryTime, String deliveryAddress, long now) {
+        Entry entry = new Entry(IN_FLIGHT, now + ttlMillis);
+        lastOrderTimes.put(userId, entry);
+        if (requestId != null) {
+            requestKeys.put(new RequestKey(userId, requestId), entry);
+        } else {
+            fingerprints.put(new Fingerprint(userId, deliveryTime, deliveryAddress), entry);
+        }
+        enforceCapacity();
+    }
+
+    /**
+     * 주문 생성 완료 기록. 완료 시점부터 TTL 동안 같은 요청을 기존 주문 ID로 응답한다.
+     */
+    public void complete(Long userId, String requestId, String deliveryTime, String deliveryAddress, Long orderId, long now) {
+        Entry entry = new Entry(orderId, now + ttlMillis);
+        if (requestId != null) {
+            requestKeys.put(new RequestKey(userId, requestId), entry);
+        } else {
+            fingerprints.put(new Fingerprint(userId, deliveryTime, deliveryAddress), entry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${order.idempotency.sweep-interval-ms:5000}")
+    public void sweepExpired() {
+        long now = System.currentTimeMillis();
+        int removed = requestKeys.removeExpired(now) + fingerprints.removeExpired(now) + lastOrderTimes.removeExpired(now);
+        if (removed > 0) {
+            System.out.println("[OrderIdempotencyStore] 만료된 중복 방지 키 " + removed + "개 제거");
+        }
+    }
+
+    private Long orderIdOf(Entry entry, long now) {
+        if (entry == null || entry.isExpired(now)) {
+            return null;
+        }
+        return entry.orderId();
+    }
+
+    private void enforceCapacity() {
+        int size = requestKeys.size() + fingerprints.size() + lastOrderTimes.size();
+        if (size <= maxEntries) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        requestKeys.evict(now, maxEntries / 3);
+        fingerprints.evict(now, maxEntries / 3);
+        lastOrderTimes.evict(now, maxEntries / 3);
+    }
+
+    private record RequestKey(Long userId, String requestId) { }
+
+    private record Fingerprint(Long userId, String deliveryTime, String deliveryAddress) { }
+
+    /**
+     * 키 -> 항목 맵과 넣은 순서의 큐. 같은 키를 다시 넣으면 큐에는 이전 항목이 남지만,
+     * 꺼낼 때 맵의 현재 항목과 같은 경우에만 제거하므로 새 항목은 지워지지 않는다.
+     */
+    private static final class ExpiringIndex<K> {
+        private final Map<K, Entry> entries = new ConcurrentHashMap<>();
+        private final Queue<Queued<K>> insertionOrder = new ConcurrentLinkedQueue<>();
+
+        Entry get(K key) {
+            return entries.get(key);
+        }
+
+        void put(K key, Entry entry) {
+            entries.put(key, entry);
+            insertionOrder.add(new Queued<>(key, entry));
+        }
+
+        int size() {
+            return entries.size();
+        }
+
+        /**
+         * 큐 앞쪽의 만료되었거나 이미 교체된 항목만 제거 (만료 순서로 쌓이므로 앞에서 멈춰도 됨)
+         */
+        int removeExpired(long now) {
+            int removed = 0;
+            Queued<K> head;
+            while ((head = insertionOrder.peek()) != null) {
+                boolean current = entries.get(head.key()) == head.entry();
+                if (current && !head.entry().isExpired(now)) {
+                    break;
+                }
+                if (insertionOrder.remove(head) && current && entries.remove(head.key(), head.entry())) {
+                    removed++;
+                }
+            }
+            return removed;
+        }
+
+        /**
+         * 만료된 항목을 먼저 지우고, 그래도 limit을 넘으면 가장 먼저 들어온 항목부터 제거
+         */
+        void evict(long now, int limit) {
+            removeExpired(now);
+            Queued<K> head;
+            while (entries.size() > limit && (head = insertionOrder.poll()) != null) {
+                entries.remove(head.key(), head.entry());
+            }
+        }
+    }
+
+    private record Queued<K>(K key, Entry entry) { }
+
+    private record Entry(long orderId, long expiresAt) {
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
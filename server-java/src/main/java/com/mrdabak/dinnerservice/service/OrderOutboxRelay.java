@@ -0,0 +1,434 @@
+package com.mrdabak.dinnerservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mrdabak.dinnerservice.model.OrderOutboxEvent;
+import com.mrdabak.dinnerservice.repository.order.OrderItemRepository;
+import com.mrdabak.dinnerservice.repository.order.OrderOutboxEventRepository;
+import com.mrdabak.dinnerservice.repository.order.OrderRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 주문 아웃박스 릴레이 (orders.db → inventory.db)
+ * 주문 변경과 같은 orders.db 트랜잭션에 재고 명령(RESERVE/RELEASE)을 기록해 두고,
+ * 커밋 직후 한 번 바로 반영을 시도한다. 실패하거나 서버가 중간에 내려가도
+ * 주기적인 릴레이가 대기 중인 명령을 다시 반영하므로 수동 보상 삭제 없이 두 DB가 맞춰진다.
+ * 재고 반영은 주문 ID 기준으로 멱등이라 같은 명령이 두 번 실행되어도 결과가 같다.
+ * 한 주문의 명령은 ID 순서대로만 반영하고(앞선 명령이 끝나야 다음 명령을 선점),
+ * 취소되었거나 없어진 주문의 RESERVE/ADJUST는 재고를 잡지 않고 완료 처리한다.
+ * 커밋 직후 반영과 주기 릴레이는 전용 작업 풀(order.outbox.workers, 대기열 order.outbox.queue-capacity)에서 실행되어
+ * 요청 스레드나 공용 스케줄러 스레드가 재고 쓰기/재시도 대기에 묶이지 않는다. 대기열이 차면 이벤트는 대기 상태로 남아 다음 릴레이가 처리한다.
+ */
+@Component
+public class OrderOutboxRelay {
+
+    public enum DispatchResult { APPLIED, REJECTED, DEFERRED }
+
+    public record Dispatch(DispatchResult result, String error) { }
+
+    private final OrderOutboxEventRepository outboxRepository;
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final InventoryService inventoryService;
+    private final OrderStatusMachine orderStatusMachine;
+    private final SqliteRetryPolicy sqliteRetryPolicy;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate orderRequiresNewTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final long staleClaimSeconds;
+    private final long retentionHours;
+    private final ThreadPoolExecutor workers;
+    // 작업 풀에 이미 넣은 이벤트 (같은 이벤트를 릴레이가 다시 넣지 않도록)
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+
+    public OrderOutboxRelay(OrderOutboxEventRepository outboxRepository,
+                            OrderRepository orderRepository,
+                            OrderItemRepository orderItemRepository,
+                            InventoryService inventoryService,
+                            OrderStatusMachine orderStatusMachine,
+                            SqliteRetryPolicy sqliteRetryPolicy,
+                            ObjectMapper objectMapper,
+                            @Qualifier("orderTransactionManager") PlatformTransactionManager orderTransactionManager,
+                            @Value("${order.outbox.batch-size:50}") int batchSize,
+                            @Value("${order.outbox.max-attempts:10}") int maxAttempts,
+                            @Value("${order.outbox.backoff-ms:2000}") long backoffMillis,
+                            @Value("${order.outbox.stale-claim-seconds:120}") long staleClaimSeconds,
+                            @Value("${order.outbox.retention-hours:72}") long retentionHours,
+                            @Value("${order.outbox.workers:2}") int workers,
+                            @Value("${order.outbox.queue-capacity:1000}") int queueCapacity) {
+        this.outboxRepository = outboxRepository;
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.inventoryService = inventoryService;
+        this.orderStatusMachine = orderStatusMachine;
+        this.sqliteRetryPolicy = sqliteRetryPolicy;
+        this.objectMapper = objectMapper;
+        // 커밋 이후(afterCommit) 호출되어도 이전 트랜잭션 자원에 섞이지 않도록 항상 새 트랜잭션 사용
+        this.orderRequiresNewTemplate = new TransactionTemplate(orderTransactionManager);
+        this.orderRequiresNewTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+        this.staleClaimSeconds = staleClaimSeconds;
+        this.retentionHours = retentionHours;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "order-outbox-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    /**
+     * 재고 예약 명령 생성 (주문 ID는 주문 저장 시 채워짐)
+     */
+    public OrderOutboxEvent reserveEvent(InventoryService.InventoryReservationPlan plan) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("delivery_time", plan.deliveryTime().toString());
+        payload.put("items", plan.quantities());
+        return newEvent(null, OrderOutboxEvent.TYPE_RESERVE, payload);
+    }
+
+    /**
+     * 주문 수정 시 예약 조정 명령 (수정 후 목표 수량/배달 시간)
+     */
+    public OrderOutboxEvent adjustEvent(Long orderId, InventoryService.InventoryReservationPlan plan) {
+        OrderOutboxEvent event = reserveEvent(plan);
+        event.setOrderId(orderId);
+        event.setEventType(OrderOutboxEvent.TYPE_ADJUST);
+        return event;
+    }
+
+    public OrderOutboxEvent releaseEvent(Long orderId) {
+        return newEvent(orderId, OrderOutboxEvent.TYPE_RELEASE, null);
+    }
+
+    /**
+     * 현재 orders.db 트랜잭션에 명령을 기록하고, 커밋 후 바로 반영을 시도한다.
+     */
+    public OrderOutboxEvent enqueue(OrderOutboxEvent event) {
+        OrderOutboxEvent saved = outboxRepository.save(event);
+        dispatchAfterCommit(saved.getId());
+        return saved;
+    }
+
+    public void dispatchAfterCommit(Long eventId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dispatchInBackground(eventId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatchInBackground(eventId);
+            }
+        });
+    }
+
+    /**
+     * 명령 하나 반영. 재고 부족 등으로 거절되면 REJECTED를 돌려주고 처리는 호출자에게 맡긴다.
+     */
+    public Dispatch dispatch(Long eventId) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer claimed = orderRequiresNewTemplate.execute(status -> outboxRepository.claim(eventId, now));
+        if (claimed == null || claimed == 0) {
+            return new Dispatch(DispatchResult.DEFERRED, "다른 작업에서 처리 중이거나 같은 주문의 앞선 명령을 기다리는 중입니다.");
+        }
+        OrderOutboxEvent event = orderRequiresNewTemplate.execute(status -> outboxRepository.findById(eventId).orElse(null));
+        if (event == null) {
+            return new Dispatch(DispatchResult.DEFERRED, "아웃박스 이벤트를 찾을 수 없습니다.");
+        }
+
+        try {
+            sqliteRetryPolicy.run("outbox." + event.getEventType().toLowerCase(), () -> apply(event));
+            orderRequiresNewTemplate.execute(status -> outboxRepository.markDone(eventId, LocalDateTime.now()));
+            return new Dispatch(DispatchResult.APPLIED, null);
+        } catch (RuntimeException e) {
+            String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            boolean transientError = sqliteRetryPolicy.classify(e) != null;
+            if (transientError && event.getAttempts() < maxAttempts) {
+                LocalDateTime retryAt = LocalDateTime.now().plusNanos(backoffMillis * event.getAttempts() * 1_000_000L);
+                orderRequiresNewTemplate.execute(status -> outboxRepository.defer(eventId, retryAt, error));
+                System.out.println("[OrderOutboxRelay] 이벤트 " + eventId + " 반영 지연 (" + event.getAttempts() + "/" + maxAttempts + "): " + error);
+                return new Dispatch(DispatchResult.DEFERRED, error);
+            }
+            return new Dispatch(DispatchResult.REJECTED, error);
+        }
+    }
+
+    /**
+     * 여러 RESERVE 이벤트를 inventory.db 한 트랜잭션으로 반영 (대량 주문 등록).
+     * 묶음 반영이 거절되면 어느 주문 때문인지 가리기 위해 이벤트별 반영으로 다시 시도한다.
+     */
+    public Map<Long, Dispatch> dispatchAll(List<Long> eventIds) {
+        Map<Long, Dispatch> results = new LinkedHashMap<>();
+        if (eventIds.isEmpty()) {
+            return results;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> claimed = orderRequiresNewTemplate.execute(status -> {
+            List<Long> ids = new ArrayList<>();
+            for (Long eventId : eventIds) {
+                if (outboxRepository.claim(eventId, now) == 1) {
+                    ids.add(eventId);
+                }
+            }
+            return ids;
+        });
+        List<OrderOutboxEvent> events = orderRequiresNewTemplate.execute(status -> outboxRepository.findAllById(claimed));
+
+        // 단건 반영(apply)과 같이 그 사이 취소되었거나 없어진 주문은 재고를 잡지 않고 완료 처리
+        Set<Long> openOrderIds = openOrderIds(events.stream().map(OrderOutboxEvent::getOrderId).toList());
+        List<Long> skipped = new ArrayList<>();
+        Map<Long, InventoryService.InventoryReservationPlan> plans = new LinkedHashMap<>();
+        for (OrderOutboxEvent event : events) {
+            if (!openOrderIds.contains(event.getOrderId())) {
+                skipped.add(event.getId());
+                continue;
+            }
+            Map<String, Object> payload = readPayload(event);
+            LocalDateTime deliveryTime = LocalDateTime.parse(String.valueOf(payload.get("delivery_time")));
+            plans.put(event.getOrderId(), inventoryService.planFor(readQuantities(payload.get("items")), deliveryTime));
+        }
+
+        if (!skipped.isEmpty()) {
+            orderRequiresNewTemplate.execute(status -> outboxRepository.markAllDone(skipped, LocalDateTime.now()));
+            skipped.forEach(id -> results.put(id, new Dispatch(DispatchResult.APPLIED, null)));
+            claimed.removeAll(skipped);
+            System.out.println("[OrderOutboxRelay] 취소되었거나 없는 주문의 RESERVE 명령 " + skipped.size() + "개 건너뜀");
+        }
+
+        if (!claimed.isEmpty()) {
+            try {
+                sqliteRetryPolicy.run("outbox.reserve-batch", () -> inventoryService.commitReservationsBatch(plans));
+                orderRequiresNewTemplate.execute(status -> outboxRepository.markAllDone(claimed, LocalDateTime.now()));
+                claimed.forEach(id -> results.put(id, new Dispatch(DispatchResult.APPLIED, null)));
+            } catch (RuntimeException e) {
+                String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+                System.out.println("[OrderOutboxRelay] 묶음 재고 반영 실패, 이벤트별로 다시 시도: " + error);
+                orderRequiresNewTemplate.executeWithoutResult(status ->
+                        claimed.forEach(id -> outboxRepository.defer(id, LocalDateTime.now(), error)));
+                claimed.forEach(id -> results.put(id, dispatch(id)));
+            }
+        }
+        // 다른 작업이 먼저 선점한 이벤트는 그쪽에서 반영
+        for (Long eventId : eventIds) {
+            results.putIfAbsent(eventId, new Dispatch(DispatchResult.DEFERRED, "다른 작업에서 처리 중입니다."));
+        }
+        return results;
+    }
+
+    /**
+     * 요청 처리 중 바로 거절된 주문 정리 - 재고가 반영되지 않았으므로 orders.db 안에서만 주문을 지운다.
+     */
+    public void discardRejectedOrder(Long orderId, Long eventId, String error) {
+        sqliteRetryPolicy.run("outbox.discard", () -> orderRequiresNewTemplate.executeWithoutResult(status -> {
+            orderItemRepository.deleteByOrderId(orderId);
+            orderRepository.deleteById(orderId);
+            outboxRepository.markFailed(eventId, LocalDateTime.now(), error);
+        }));
+        System.out.println("[OrderOutboxRelay] 재고 반영이 거절된 주문 " + orderId + " 삭제: " + error);
+    }
+
+    @Scheduled(fixedDelayString = "${order.outbox.poll-interval-ms:2000}")
+    public void relayPending() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            orderRequiresNewTemplate.execute(status -> outboxRepository.requeueStale(now.minusSeconds(staleClaimSeconds)));
+            List<Long> ids = orderRequiresNewTemplate.execute(status ->
+                    outboxRepository.findDispatchableIds(now, PageRequest.of(0, batchSize)));
+            if (ids == null || ids.isEmpty()) {
+                return;
+            }
+            System.out.println("[OrderOutboxRelay] 대기 중인 아웃박스 이벤트 " + ids.size() + "개 반영");
+            for (Long id : ids) {
+                dispatchInBackground(id);
+            }
+        } catch (Exception e) {
+            System.err.println("[OrderOutboxRelay] 아웃박스 릴레이 실패: " + e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${order.outbox.purge-interval-ms:3600000}")
+    public void purgeProcessed() {
+        try {
+            Integer removed = orderRequiresNewTemplate.execute(status ->
+                    outboxRepository.deleteDoneBefore(LocalDateTime.now().minusHours(retentionHours)));
+            if (removed != null && removed > 0) {
+                System.out.println("[OrderOutboxRelay] 처리 완료된 아웃박스 이벤트 " + removed + "개 삭제");
+            }
+        } catch (Exception e) {
+            System.err.println("[OrderOutboxRelay] 아웃박스 정리 실패: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 작업 풀에 반영을 맡긴다. 대기열이 가득 차면 이벤트는 PENDING으로 남고 다음 relayPending에서 다시 넣는다.
+     */
+    private void dispatchInBackground(Long eventId) {
+        if (!queued.add(eventId)) {
+            return;
+        }
+        try {
+            workers.execute(() -> {
+                try {
+                    Dispatch dispatch = dispatch(eventId);
+                    if (dispatch.result() == DispatchResult.REJECTED) {
+                        failEvent(eventId, dispatch.error());
+                    }
+                } catch (Exception e) {
+                    System.err.println("[OrderOutboxRelay] 이벤트 " + eventId + " 반영 실패: " + e.getMessage());
+                } finally {
+                    queued.remove(eventId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queued.remove(eventId);
+            System.out.println("[OrderOutboxRelay] 반영 대기열이 가득 차 이벤트 " + eventId + "는 다음 릴레이에서 처리");
+        }
+    }
+
+    // 비동기 반영이 거절되면 주문을 취소 상태로 남긴다.
+    // RESERVE는 반영된 재고가 없고, ADJUST는 수정 전 예약이 남아 있으므로 해제 명령을 함께 기록한다.
+    private void failEvent(Long eventId, String error) {
+        orderRequiresNewTemplate.executeWithoutResult(status -> {
+            OrderOutboxEvent event = outboxRepository.findById(eventId).orElse(null);
+            if (event == null) {
+                return;
+            }
+            outboxRepository.markFailed(eventId, LocalDateTime.now(), error);
+            if (OrderOutboxEvent.TYPE_RESERVE.equals(event.getEventType())) {
+                cancelForInventory(event.getOrderId());
+            } else if (OrderOutboxEvent.TYPE_ADJUST.equals(event.getEventType())) {
+                cancelForInventory(event.getOrderId());
+                outboxRepository.save(releaseEvent(event.getOrderId()));
+            }
+        });
+        System.err.println("[OrderOutboxRelay] 이벤트 " + eventId + " 반영 실패로 종료: " + error);
+    }
+
+    // 상태는 compare-and-set 전이로만 바꾸고 승인 상태는 해당 열만 UPDATE (동시에 진행된 상태 변경을 덮어쓰지 않음)
+    // 이미 종료된 주문은 건드리지 않는다 - 전이 실패로 예외가 나면 이 트랜잭션 전체가 롤백되므로 미리 확인
+    private void cancelForInventory(Long orderId) {
+        String current = orderRepository.findStatusById(orderId).map(OrderRepository.StatusView::getStatus).orElse(null);
+        if (current == null || !OrderStatusMachine.OPEN_STATUSES.contains(current)) {
+            return;
+        }
+        orderStatusMachine.transition(orderId, OrderStatusMachine.CANCELLED);
+        orderRepository.updateAdminApprovalStatusUnlessRejected(orderId, "CANCELLED");
+        System.out.println("[OrderOutboxRelay] 재고 예약 실패로 주문 " + orderId + " 취소");
+    }
+
+    private void apply(OrderOutboxEvent event) {
+        if ((OrderOutboxEvent.TYPE_RESERVE.equals(event.getEventType()) || OrderOutboxEvent.TYPE_ADJUST.equals(event.getEventType()))
+                && !isOpenOrder(event.getOrderId())) {
+            // 취소(또는 삭제)된 주문 - 해제 명령이 이미 기록되었거나 반영되었으므로 용량을 다시 잡지 않는다
+            System.out.println("[OrderOutboxRelay] 취소되었거나 없는 주문 " + event.getOrderId() + "의 "
+                    + event.getEventType() + " 명령 건너뜀");
+            return;
+        }
+        switch (event.getEventType()) {
+            case OrderOutboxEvent.TYPE_RESERVE -> {
+                Map<String, Object> payload = readPayload(event);
+                LocalDateTime deliveryTime = LocalDateTime.parse(String.valueOf(payload.get("delivery_time")));
+                inventoryService.commitReservations(event.getOrderId(),
+                        inventoryService.planFor(readQuantities(payload.get("items")), deliveryTime));
+            }
+            case OrderOutboxEvent.TYPE_ADJUST -> {
+                Map<String, Object> payload = readPayload(event);
+                LocalDateTime deliveryTime = LocalDateTime.parse(String.valueOf(payload.get("delivery_time")));
+                inventoryService.adjustReservations(event.getOrderId(),
+                        inventoryService.planFor(readQuantities(payload.get("items")), deliveryTime));
+            }
+            case OrderOutboxEvent.TYPE_RELEASE -> inventoryService.releaseReservationsForOrder(event.getOrderId());
+            default -> throw new IllegalStateException("알 수 없는 아웃박스 이벤트 유형: " + event.getEventType());
+        }
+    }
+
+    private Set<Long> openOrderIds(List<Long> orderIds) {
+        Set<Long> open = new HashSet<>();
+        orderRequiresNewTemplate.executeWithoutResult(status -> orderRepository.findAllById(orderIds).forEach(order -> {
+            if (!"cancelled".equals(order.getStatus())) {
+                open.add(order.getId());
+            }
+        }));
+        return open;
+    }
+
+    private boolean isOpenOrder(Long orderId) {
+        if (orderId == null) {
+            return false;
+        }
+        Boolean open = orderRequiresNewTemplate.execute(status -> orderRepository.findById(orderId)
+                .map(order -> !"cancelled".equals(order.getStatus()))
+                .orElse(false));
+        return Boolean.TRUE.equals(open);
+    }
+
+    private Map<Long, Integer> readQuantities(Object items) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        if (items instanceof Map<?, ?> map) {
+            map.forEach((key, value) -> quantities.put(Long.valueOf(String.valueOf(key)), ((Number) value).intValue()));
+        }
+        return quantities;
+    }
+
+    private Map<String, Object> readPayload(OrderOutboxEvent event) {
+        if (event.getPayload() == null) {
+            return new HashMap<>();
+        }
+        try {
+            return objectMapper.readValue(event.getPayload(), new TypeReference<Map<String, Object>>() { });
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("아웃박스 이벤트 내용을 읽을 수 없습니다: " + event.getId(), e);
+        }
+    }
+
+    private OrderOutboxEvent newEvent(Long orderId, String type, Map<String, Object> payload) {
+        OrderOutboxEvent event = new OrderOutboxEvent();
+        event.setOrderId(orderId);
+        event.setEventType(type);
+        if (payload != null) {
+            try {
+                event.setPayload(objectMapper.writeValueAsString(payload));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("아웃박스 이벤트를 기록할 수 없습니다.", e);
+            }
+        }
+        return event;
+    }
+}
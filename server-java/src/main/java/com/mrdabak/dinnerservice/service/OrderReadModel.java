@@ -0,0 +1,262 @@
+package com.mrdabak.dinnerservice.service;
+
+import com.mrdabak.dinnerservice.model.MenuCatalogVersion;
+import com.mrdabak.dinnerservice.model.OrderChangeLog;
+import com.mrdabak.dinnerservice.repository.order.OrderRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * 주문 목록 조회용 읽기 모델 (메모리)
+ * 주문 + 고객/직원 이름 + 디너 이름 + 주문 항목(메뉴 이름/가격)을 OrderViewAssembler로 한 번 조립해 주문 ID 순으로 보관한다.
+ * 목록 API는 orders/main DB를 주문마다 다시 조회하지 않고 이 목록을 한 번 훑기만 한다.
+ *
+ * 주문/주문 항목이 커밋되면 OrderChangeLog에 주문 ID가 쌓이고, 다음 조회 시 그 주문만 다시 읽는다.
+ * 사용자 정보가 바뀌면 그 사용자가 고객/담당 직원인 주문을 다시 읽는다.
+ * 이 프로세스가 커밋한 변경만 추적하므로 단일 인스턴스 실행을 전제로 한다 (SingleInstanceLock).
+ * 메뉴/디너가 바뀌면(MenuCatalogVersion) 전체를 다시 조립하고, 누락된 변경 알림에 대비해 주기적으로도 재구성한다.
+ *
+ * 내용이 실제로 바뀐 주문에는 증가하는 버전 번호를 매겨 두므로, 화면은 마지막으로 받은 버전 이후 바뀐 주문만 받아갈 수 있다 (changesSince).
+ * 변경마다 바뀌기 전 내용을 함께 남겨(최근 change-history개), 그 버전 시점에 화면에 있던 주문만 removed로 알려준다.
+ */
+@Component
+public class OrderReadModel {
+
+    private static final Comparator<OrderView> NEWEST_FIRST =
+            Comparator.comparing(OrderView::createdAt, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    private final OrderRepository orderRepository;
+    private final OrderViewAssembler orderViewAssembler;
+
+    private final ConcurrentSkipListMap<Long, OrderView> views = new ConcurrentSkipListMap<>();
+    // 버전 -> 변경 (주문 ID + 바뀌기 전 내용), 최근 changeHistory개만 유지
+    private final ConcurrentSkipListMap<Long, Change> changesByVersion = new ConcurrentSkipListMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private final int changeHistory;
+    private volatile long baselineVersion = Long.MAX_VALUE;
+    private volatile long loadedCatalogVersion = -1;
+
+    public OrderReadModel(OrderRepository orderRepository, OrderViewAssembler orderViewAssembler,
+                          @Value("${order.read-model.change-history:20000}") int changeHistory) {
+        this.orderRepository = orderRepository;
+        this.orderViewAssembler = orderViewAssembler;
+        this.changeHistory = changeHistory;
+    }
+
+    /**
+     * 사용자 주문 목록 (최신순)
+     */
+    public List<OrderView> ordersForUser(Long userId) {
+        List<OrderView> result = orders(view -> view.userId().equals(userId));
+        result.sort(NEWEST_FIRST);
+        return result;
+    }
+
+    /**
+     * 조건에 맞는 주문 목록 (주문 ID 순)
+     */
+    public List<OrderView> orders(Predicate<OrderView> filter) {
+        return page(0L, -1, filter);
+    }
+
+    /**
+     * 주문 ID가 afterId보다 큰 주문 중 조건에 맞는 것을 ID 순으로 최대 maxResults개 (음수면 전체).
+     * ID 순으로 정렬된 맵의 afterId 이후부터 훑으므로 앞 페이지를 다시 읽지 않는다.
+     */
+    public List<OrderView> page(long afterId, int maxResults, Predicate<OrderView> filter) {
+        refreshIfNeeded();
+        List<OrderView> result = new ArrayList<>();
+        for (OrderView view : views.tailMap(afterId, false).values()) {
+            if (maxResults >= 0 && result.size() >= maxResults) {
+                break;
+            }
+            if (filter.test(view)) {
+                result.add(view);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * sinceVersion 이후 내용이 바뀐 주문. 조건에 맞으면 changed에 담고,
+     * sinceVersion 시점에는 조건에 맞았는데 지금은 맞지 않거나 삭제되었으면 removed에 담는다 (화면이 받은 적 없는 주문은 제외).
+     * 첫 적재 이전 버전, 보관 범위를 벗어난 버전, (서버 재시작 등으로) 알 수 없는 버전이면 full=true로 조건에 맞는 전체 목록을 돌려준다.
+     */
+    public Changes changesSince(long sinceVersion, Predicate<OrderView> filter) {
+        refreshIfNeeded();
+        // 버전을 먼저 읽는다 - 이후 반영된 변경은 다음 요청에서 다시 전달될 수 있지만 빠지지는 않는다
+        long current = version.get();
+        if (sinceVersion < baselineVersion || sinceVersion > current) {
+            return new Changes(current, true, orders(filter), List.of());
+        }
+        // 주문마다 sinceVersion 이후 첫 변경의 "바뀌기 전 내용"이 sinceVersion 시점의 내용
+        Map<Long, OrderView> before = new LinkedHashMap<>();
+        for (Change change : changesByVersion.subMap(sinceVersion, false, current, true).values()) {
+            if (!before.containsKey(change.orderId())) {
+                before.put(change.orderId(), change.previous());
+            }
+        }
+        List<OrderView> changed = new ArrayList<>();
+        List<Long> removed = new ArrayList<>();
+        before.forEach((orderId, previous) -> {
+            OrderView view = views.get(orderId);
+            if (view != null && filter.test(view)) {
+                changed.add(view);
+            } else if (previous != null && filter.test(previous)) {
+                removed.add(orderId);
+            }
+        });
+        return new Changes(current, false, changed, removed);
+    }
+
+    @Scheduled(fixedDelayString = "${order.read-model.rebuild-interval-ms:300000}",
+            initialDelayString = "${order.read-model.rebuild-interval-ms:300000}")
+    public void scheduledRebuild() {
+        try {
+            rebuild(MenuCatalogVersion.current());
+        } catch (Exception e) {
+            System.err.println("[OrderReadModel] 주문 읽기 모델 재구성 실패: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 반영되지 않은 변경이 있으면 반영한 뒤 돌아온다.
+     * 변경 기록은 반영이 끝난 뒤에야 지워지므로, 기록이 비어 있으면 그때까지 커밋된 변경은 모두 목록에 들어 있다.
+     * 기록이 남아 있으면 재구성/재조회와 같은 잠금을 잡고 다시 확인하므로, 다른 스레드가 반영 중이면 끝날 때까지 기다린다.
+     * (ETag는 조회 전에 만든 사용자 버전이므로, 그 버전까지의 변경이 빠진 목록이 새 ETag로 나가지 않는다)
+     */
+    private void refreshIfNeeded() {
+        if (loadedCatalogVersion == MenuCatalogVersion.current() && OrderChangeLog.isEmpty()) {
+            return;
+        }
+        refresh();
+    }
+
+    private synchronized void refresh() {
+        long catalogVersion = MenuCatalogVersion.current();
+        if (loadedCatalogVersion != catalogVersion) {
+            rebuild(catalogVersion);
+        }
+        if (!OrderChangeLog.isEmpty()) {
+            reloadChanged();
+        }
+    }
+
+    private synchronized void rebuild(long catalogVersion) {
+        // 재구성 중 쌓인 변경 기록은 지우지 않는다 (조회 시점보다 나중 커밋일 수 있음)
+        List<OrderView> assembled = orderViewAssembler.assemble(orderRepository.findAll());
+        Map<Long, OrderView> rebuilt = new HashMap<>();
+        for (OrderView view : assembled) {
+            rebuilt.put(view.id(), view);
+        }
+        for (Long id : new ArrayList<>(views.keySet())) {
+            if (!rebuilt.containsKey(id)) {
+                apply(id, null);
+            }
+        }
+        rebuilt.forEach(this::apply);
+        if (baselineVersion == Long.MAX_VALUE) {
+            baselineVersion = version.get();
+        }
+        loadedCatalogVersion = catalogVersion;
+        System.out.println("[OrderReadModel] 주문 읽기 모델 재구성 - 주문 " + rebuilt.size() + "건");
+    }
+
+    // 기록은 목록에 반영한 뒤에 지운다 - 읽지 못하면 기록이 남아 다음 조회 때 재시도
+    private synchronized void reloadChanged() {
+        Map<Long, Long> changedOrders = OrderChangeLog.pending();
+        Map<Long, Long> changedUsers = OrderChangeLog.pendingUsers();
+        Set<Long> ids = new HashSet<>(changedOrders.keySet());
+        if (!changedUsers.isEmpty()) {
+            for (OrderView view : views.values()) {
+                if (changedUsers.containsKey(view.userId()) || changedUsers.containsKey(view.cookingEmployeeId())
+                        || changedUsers.containsKey(view.deliveryEmployeeId())) {
+                    ids.add(view.id());
+                }
+            }
+        }
+        if (ids.isEmpty()) {
+            OrderChangeLog.acknowledge(changedOrders, changedUsers);
+            return;
+        }
+        List<OrderView> assembled = orderViewAssembler.assemble(orderRepository.findAllById(ids));
+        Set<Long> found = new HashSet<>();
+        for (OrderView view : assembled) {
+            apply(view.id(), view);
+            found.add(view.id());
+        }
+        // 삭제된 주문
+        for (Long id : ids) {
+            if (!found.contains(id)) {
+                apply(id, null);
+            }
+        }
+        OrderChangeLog.acknowledge(changedOrders, changedUsers);
+    }
+
+    /**
+     * 주문 반영 (view가 null이면 삭제). 내용이 바뀐 경우에만 새 버전을 매긴다.
+     * 목록에 먼저 넣고 버전을 올려, 어떤 버전을 읽은 뒤의 목록에는 그 버전까지의 변경이 모두 들어 있게 한다.
+     */
+    private void apply(Long orderId, OrderView view) {
+        OrderView previous = view != null ? views.put(orderId, view) : views.remove(orderId);
+        if (Objects.equals(previous, view)) {
+            return;
+        }
+        long next = version.incrementAndGet();
+        changesByVersion.put(next, new Change(orderId, previous));
+        // 오래된 변경은 버리고, 그 이전 버전으로 묻는 화면에는 전체 목록을 준다
+        Map.Entry<Long, Change> oldest;
+        while ((oldest = changesByVersion.firstEntry()) != null && oldest.getKey() <= next - changeHistory) {
+            changesByVersion.remove(oldest.getKey());
+            if (baselineVersion != Long.MAX_VALUE && baselineVersion < oldest.getKey()) {
+                baselineVersion = oldest.getKey();
+            }
+        }
+    }
+
+    private record Change(Long orderId, OrderView previous) { }
+
+    public record Changes(long version, boolean full, List<OrderView> changed, List<Long> removed) { }
+
+    /**
+     * 조립된 주문 (불변). 이름 필드는 해당 사용자/디너가 없으면 null.
+     */
+    public record OrderView(Long id,
+                            Long userId,
+                            Long dinnerTypeId,
+                            String servingStyle,
+                            String deliveryTime,
+                            LocalDateTime deliveryAt,
+                            String deliveryAddress,
+                            Integer totalPrice,
+                            String status,
+                            String paymentStatus,
+                            String adminApprovalStatus,
+                            LocalDateTime createdAt,
+                            Long cookingEmployeeId,
+                            String cookingEmployeeName,
+                            Long deliveryEmployeeId,
+                            String deliveryEmployeeName,
+                            String customerName,
+                            String customerEmail,
+                            String customerPhone,
+                            String dinnerName,
+                            String dinnerNameEn,
+                            List<Map<String, Object>> items) { }
+}
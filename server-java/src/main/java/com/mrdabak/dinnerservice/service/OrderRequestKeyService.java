@@ -0,0 +1,135 @@
+package com.mrdabak.dinnerservice.service;
+
+import com.mrdabak.dinnerservice.model.OrderRequestKey;
+import com.mrdabak.dinnerservice.repository.order.OrderRepository;
+import com.mrdabak.dinnerservice.repository.order.OrderRequestKeyRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * X-Request-ID 기반 주문 멱등성 (orders.db의 order_request_keys 테이블)
+ * 서버가 재시작되거나 여러 인스턴스로 실행되어도 같은 요청 ID로 재전송된 주문은
+ * 기본 키 조회 한 번으로 최초 응답을 그대로 돌려준다.
+ * 키의 완료 기록은 OrderGroupCommitWriter가 주문과 같은 트랜잭션에서 남긴다 (주문은 있는데 키만 처리 중으로 남는 일이 없음).
+ */
+@Service
+public class OrderRequestKeyService {
+
+    private final OrderRequestKeyRepository orderRequestKeyRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate orderTransactionTemplate;
+    private final long staleClaimSeconds;
+    private final long retentionHours;
+
+    @PersistenceContext(unitName = "order")
+    private EntityManager entityManager;
+
+    public OrderRequestKeyService(OrderRequestKeyRepository orderRequestKeyRepository,
+                                  OrderRepository orderRepository,
+                                  @Qualifier("orderTransactionManager") PlatformTransactionManager orderTransactionManager,
+                                  @Value("${order.request-key.stale-claim-seconds:120}") long staleClaimSeconds,
+                                  @Value("${order.request-key.retention-hours:24}") long retentionHours) {
+        this.orderRequestKeyRepository = orderRequestKeyRepository;
+        this.orderRepository = orderRepository;
+        this.orderTransactionTemplate = new TransactionTemplate(orderTransactionManager);
+        this.staleClaimSeconds = staleClaimSeconds;
+        this.retentionHours = retentionHours;
+    }
+
+    public Optional<OrderRequestKey> find(Long userId, String requestId) {
+        return orderRequestKeyRepository.findById(keyOf(userId, requestId));
+    }
+
+    /**
+     * 요청 키 선점. 이미 같은 키가 있으면 기존 행을 함께 돌려준다.
+     */
+    public Claim claim(Long userId, String requestId) {
+        String requestKey = keyOf(userId, requestId);
+        if (tryInsert(requestKey, userId)) {
+            return new Claim(true, null);
+        }
+        // 완료되지 못하고 오래 남은 선점 키는 정리 후 다시 시도
+        int removed = orderRequestKeyRepository.deleteStaleClaim(requestKey,
+                LocalDateTime.now().minusSeconds(staleClaimSeconds));
+        if (removed > 0 && tryInsert(requestKey, userId)) {
+            return new Claim(true, null);
+        }
+        return new Claim(false, orderRequestKeyRepository.findById(requestKey).orElse(null));
+    }
+
+    /**
+     * 주문 저장 시 함께 완료 처리할 키 (OrderService.createOrder에 전달)
+     */
+    public String requestKey(Long userId, String requestId) {
+        return keyOf(userId, requestId);
+    }
+
+    /**
+     * 주문 생성 실패 시 선점 해제 - 클라이언트가 같은 요청 ID로 다시 시도할 수 있도록 한다.
+     * 주문 저장이 롤백되어 처리 중으로 남은 키, 또는 저장 후 재고 거절로 주문이 삭제된 키만 지운다.
+     * 주문이 남아 있는 완료 키는 그대로 두어 재전송에 기존 주문을 돌려준다.
+     */
+    public void release(Long userId, String requestId) {
+        String requestKey = keyOf(userId, requestId);
+        try {
+            Optional<OrderRequestKey> row = orderRequestKeyRepository.findById(requestKey);
+            if (row.isEmpty()) {
+                return;
+            }
+            Long orderId = row.get().getOrderId();
+            if (orderId == null) {
+                orderRequestKeyRepository.deleteClaim(requestKey);
+            } else if (!orderRepository.existsById(orderId)) {
+                orderRequestKeyRepository.deleteCompletedFor(requestKey, orderId);
+            }
+        } catch (Exception e) {
+            System.err.println("[OrderRequestKeyService] 요청 키 해제 실패: " + e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${order.request-key.purge-interval-ms:3600000}")
+    public void purgeExpiredKeys() {
+        try {
+            int removed = orderRequestKeyRepository.deleteCreatedBefore(LocalDateTime.now().minusHours(retentionHours));
+            if (removed > 0) {
+                System.out.println("[OrderRequestKeyService] 보관 기간이 지난 요청 키 " + removed + "개 삭제");
+            }
+        } catch (Exception e) {
+            System.err.println("[OrderRequestKeyService] 요청 키 정리 실패: " + e.getMessage());
+        }
+    }
+
+    private boolean tryInsert(String requestKey, Long userId) {
+        try {
+            orderTransactionTemplate.executeWithoutResult(status -> {
+                OrderRequestKey row = new OrderRequestKey();
+                row.setRequestKey(requestKey);
+                row.setUserId(userId);
+                entityManager.persist(row);
+                entityManager.flush();
+            });
+            return true;
+        } catch (RuntimeException e) {
+            // 기본 키 충돌이면 이미 선점된 요청, 그 외 오류는 그대로 전파
+            if (orderRequestKeyRepository.existsById(requestKey)) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    private String keyOf(Long userId, String requestId) {
+        return userId + "|" + requestId;
+    }
+
+    public record Claim(boolean acquired, OrderRequestKey existing) { }
+}
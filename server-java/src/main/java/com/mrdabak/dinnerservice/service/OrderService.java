@@ -4,138 +4,82 @@ import com.mrdabak.dinnerservice.dto.OrderItemDto;
 import com.mrdabak.dinnerservice.dto.OrderRequest;
 import com.mrdabak.dinnerservice.model.*;
 import com.mrdabak.dinnerservice.repository.*;
+import com.mrdabak.dinnerservice.repository.archive.ArchivedOrderRepository;
 import com.mrdabak.dinnerservice.repository.order.OrderRepository;
 import com.mrdabak.dinnerservice.repository.order.OrderItemRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class OrderService {
 
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
-    private final DinnerTypeRepository dinnerTypeRepository;
-    private final MenuItemRepository menuItemRepository;
     private final InventoryService inventoryService;
     private final DeliverySchedulingService deliverySchedulingService;
     private final UserRepository userRepository;
+    private final OrderGroupCommitWriter orderGroupCommitWriter;
+    private final SqliteRetryPolicy sqliteRetryPolicy;
+    private final MenuPricingTable menuPricingTable;
+    private final UserOrderStatsService userOrderStatsService;
+    private final OrderOutboxRelay orderOutboxRelay;
+    private final OrderStatusMachine orderStatusMachine;
+    private final OrderEventBus orderEventBus;
+    private final ArchivedOrderRepository archivedOrderRepository;
 
     public OrderService(OrderRepository orderRepository, OrderItemRepository orderItemRepository,
-                       DinnerTypeRepository dinnerTypeRepository, MenuItemRepository menuItemRepository,
                        InventoryService inventoryService, DeliverySchedulingService deliverySchedulingService,
-                       UserRepository userRepository) {
+                       UserRepository userRepository, OrderGroupCommitWriter orderGroupCommitWriter,
+                       SqliteRetryPolicy sqliteRetryPolicy, MenuPricingTable menuPricingTable,
+                       UserOrderStatsService userOrderStatsService, OrderOutboxRelay orderOutboxRelay,
+                       OrderStatusMachine orderStatusMachine, OrderEventBus orderEventBus,
+                       ArchivedOrderRepository archivedOrderRepository) {
         this.orderRepository = orderRepository;
         this.orderItemRepository = orderItemRepository;
-        this.dinnerTypeRepository = dinnerTypeRepository;
-        this.menuItemRepository = menuItemRepository;
         this.inventoryService = inventoryService;
         this.deliverySchedulingService = deliverySchedulingService;
         this.userRepository = userRepository;
+        this.orderGroupCommitWriter = orderGroupCommitWriter;
+        this.sqliteRetryPolicy = sqliteRetryPolicy;
+        this.menuPricingTable = menuPricingTable;
+        this.userOrderStatsService = userOrderStatsService;
+        this.orderOutboxRelay = orderOutboxRelay;
+        this.orderStatusMachine = orderStatusMachine;
+        this.orderEventBus = orderEventBus;
+        this.archivedOrderRepository = archivedOrderRepository;
     }
 
+    /**
+     * 주문 생성 - 검증/가격 계산/재고 확인은 요청 스레드에서 수행하고,
+     * orders.db 저장은 OrderGroupCommitWriter가 다른 주문과 묶어 한 번에 커밋한다.
+     * (SQLite 잠금 재시도는 writer 스레드에서만 일어나므로 요청 스레드가 sleep 하지 않음)
+     */
     public Order createOrder(Long userId, OrderRequest request) {
-        int maxRetries = 10;
-        int retryCount = 0;
-        long baseDelay = 100; // Start with 100ms
-        
-        while (retryCount < maxRetries) {
-            try {
-                return createOrderWithTransaction(userId, request);
-            } catch (Exception e) {
-                String errorMessage = e.getMessage() != null ? e.getMessage().toLowerCase() : "";
-                String causeMessage = "";
-                if (e.getCause() != null && e.getCause().getMessage() != null) {
-                    causeMessage = e.getCause().getMessage().toLowerCase();
-                }
-                
-                // Check for various SQLite lock errors
-                boolean isLocked = errorMessage.contains("database is locked") 
-                    || errorMessage.contains("sqlite_busy")
-                    || errorMessage.contains("sqlite_busy_snapshot")
-                    || causeMessage.contains("database is locked")
-                    || causeMessage.contains("sqlite_busy")
-                    || causeMessage.contains("sqlite_busy_snapshot");
-                
-                if (isLocked && retryCount < maxRetries - 1) {
-                    retryCount++;
-                    long delay = baseDelay * (long) Math.pow(2, retryCount - 1); // Exponential backoff: 100ms, 200ms, 400ms, 800ms...
-                    System.out.println("[OrderService] Database locked (SQLITE_BUSY_SNAPSHOT), retrying... (" + retryCount + "/" + maxRetries + ") after " + delay + "ms");
-                    try {
-                        Thread.sleep(delay);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        throw new RuntimeException("Order creation interrupted", ie);
-                    }
-                } else {
-                    // Not a lock error or max retries reached
-                    if (isLocked) {
-                        throw new RuntimeException("Failed to create order after " + maxRetries + " retries due to database lock", e);
-                    } else {
-                        throw e;
-                    }
-                }
-            }
-        }
-        throw new RuntimeException("Failed to create order after " + maxRetries + " retries");
+        return createOrderInternal(userId, request, null);
     }
-    
-    @Transactional(transactionManager = "orderTransactionManager", rollbackFor = Exception.class)
-    private Order createOrderWithTransaction(Long userId, OrderRequest request) {
-        return createOrderInternal(userId, request);
-    }
-    
-    private Order createOrderInternal(Long userId, OrderRequest request) {
-        // Validate input
-        if (request.getDeliveryAddress() == null || request.getDeliveryAddress().trim().isEmpty()) {
-            throw new RuntimeException("배달 주소는 필수입니다.");
-        }
-        if (request.getDeliveryTime() == null || request.getDeliveryTime().trim().isEmpty()) {
-            throw new RuntimeException("배달 시간은 필수입니다.");
-        }
 
-        // Read from main database (menu, dinner types)
-        DinnerType dinner = dinnerTypeRepository.findById(request.getDinnerTypeId())
-                .orElseThrow(() -> new RuntimeException("유효하지 않은 디너 타입입니다."));
+    /**
+     * requestKey: 선점된 X-Request-ID 키 (OrderRequestKeyService.requestKey). 주문과 같은 트랜잭션에서 완료 처리된다.
+     */
+    public Order createOrder(Long userId, OrderRequest request, String requestKey) {
+        return createOrderInternal(userId, request, requestKey);
+    }
 
+    private Order createOrderInternal(Long userId, OrderRequest request, String requestKey) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("사용자를 찾을 수 없습니다."));
 
-        // Validate serving style for Champagne Feast
-        if (dinner.getName().contains("샴페인") && !request.getServingStyle().equals("grand") && !request.getServingStyle().equals("deluxe")) {
-            throw new RuntimeException("샴페인 축제 디너는 그랜드 또는 디럭스 스타일만 주문 가능합니다.");
-        }
-
-        LocalDateTime deliveryDateTime = parseDeliveryTime(request.getDeliveryTime());
-
-        // Calculate price
-        Map<String, Double> styleMultipliers = Map.of(
-                "simple", 1.0,
-                "grand", 1.3,
-                "deluxe", 1.6
-        );
-        double basePrice = dinner.getBasePrice() * styleMultipliers.getOrDefault(request.getServingStyle(), 1.0);
-
-        // Add item prices
-        double itemsPrice = 0;
-        for (OrderItemDto item : request.getItems()) {
-            if (item.getMenuItemId() == null) {
-                throw new RuntimeException("Menu item ID is required");
-            }
-            if (item.getQuantity() == null || item.getQuantity() <= 0) {
-                throw new RuntimeException("Menu item quantity must be greater than 0");
-            }
-            MenuItem menuItem = menuItemRepository.findById(item.getMenuItemId())
-                    .orElseThrow(() -> new RuntimeException("Invalid menu item ID: " + item.getMenuItemId()));
-            itemsPrice += menuItem.getPrice() * item.getQuantity();
-        }
-
-        double totalPrice = basePrice + itemsPrice;
+        PreparedOrder prepared = prepareOrder(userId, request, isLoyaltyEligible(user));
+        LocalDateTime deliveryDateTime = prepared.deliveryTime();
 
         InventoryService.InventoryReservationPlan inventoryPlan =
                 inventoryService.prepareReservations(request.getItems(), deliveryDateTime);
@@ -144,26 +88,7 @@ public class OrderService {
         // DeliverySchedulingService.DeliveryAssignmentPlan assignmentPlan =
         //         deliverySchedulingService.prepareAssignment(request.getDeliveryAddress(), deliveryDateTime);
 
-        List<Order> previousOrders = orderRepository.findByUserIdOrderByCreatedAtDesc(userId);
-        long deliveredOrders = previousOrders.stream()
-                .filter(o -> "delivered".equalsIgnoreCase(o.getStatus()))
-                .count();
-        boolean loyaltyEligible = Boolean.TRUE.equals(user.getLoyaltyConsent()) && deliveredOrders >= 5;
-        if (loyaltyEligible) {
-            totalPrice = totalPrice * 0.9;
-        }
-
-        // Create order - save to order database
-        Order order = new Order();
-        order.setUserId(userId);
-        order.setDinnerTypeId(request.getDinnerTypeId());
-        order.setServingStyle(request.getServingStyle());
-        order.setDeliveryTime(request.getDeliveryTime());
-        order.setDeliveryAddress(request.getDeliveryAddress());
-        order.setTotalPrice((int) Math.round(totalPrice));
-        order.setPaymentStatus("pending");
-        order.setPaymentMethod(request.getPaymentMethod());
-        order.setAdminApprovalStatus("PENDING");
+        Order order = prepared.order();
 
         // 주문 생성 시 직원 자동 할당 제거 - 관리자가 나중에 할당하도록 함
         // 주문은 하나만 생성되며, 직원 할당은 관리자가 스케줄 관리에서 할당
@@ -174,73 +99,109 @@ public class OrderService {
         System.out.println("[OrderService] 배달 주소: " + request.getDeliveryAddress());
         
         // 중복 주문 확인: 동일한 사용자가 동일한 배달 시간과 주소로 최근 5초 이내에 주문을 생성했는지 확인
-        // 주의: 첫 주문인 경우에도 이 검사를 통과해야 하므로, createdAt이 null인 경우는 제외
-        String deliveryTimeStr = request.getDeliveryTime();
-        String deliveryAddressStr = request.getDeliveryAddress();
-        List<Order> recentOrders = orderRepository.findByUserIdAndDeliveryTimeAndDeliveryAddress(userId, deliveryTimeStr, deliveryAddressStr);
-        
-        // 최근 5초 이내에 동일한 주문이 있는지 확인 (10초에서 5초로 단축하여 더 정확하게)
-        long fiveSecondsAgo = System.currentTimeMillis() - 5000;
-        for (Order recentOrder : recentOrders) {
-            // createdAt이 null이거나 최근 5초 이내가 아닌 경우는 중복이 아님
-            if (recentOrder.getCreatedAt() != null) {
-                try {
-                    long createdAtMillis = recentOrder.getCreatedAt().toInstant(java.time.ZoneOffset.UTC).toEpochMilli();
-                    if (createdAtMillis > fiveSecondsAgo) {
-                        System.out.println("[OrderService] 경고: 최근 5초 이내에 동일한 주문이 이미 존재합니다 - 주문 ID: " + recentOrder.getId());
-                        System.out.println("[OrderService] 기존 주문 생성 시간: " + recentOrder.getCreatedAt());
-                        System.out.println("[OrderService] 기존 주문 배달 시간: " + recentOrder.getDeliveryTime());
-                        System.out.println("[OrderService] 기존 주문 배달 주소: " + recentOrder.getDeliveryAddress());
-                        // 중복 주문이면 예외 발생 (중복 방지)
-                        throw new RuntimeException("동일한 주문이 최근에 생성되었습니다. 주문 ID: " + recentOrder.getId());
-                    }
-                } catch (Exception e) {
-                    // 시간 변환 실패 시 무시 (첫 주문일 수 있음)
-                    System.out.println("[OrderService] 시간 변환 실패, 중복 검사 건너뜀: " + e.getMessage());
-                }
-            }
+        // (user_id, delivery_time, delivery_address, created_at) 인덱스로 최근 한 건만 조회
+        LocalDateTime fiveSecondsAgo = LocalDateTime.now().minusSeconds(5);
+        Optional<Order> recentDuplicate = orderRepository
+                .findFirstByUserIdAndDeliveryTimeAndDeliveryAddressAndCreatedAtAfterOrderByCreatedAtDesc(
+                        userId, request.getDeliveryTime(), request.getDeliveryAddress(), fiveSecondsAgo);
+        if (recentDuplicate.isPresent()) {
+            Order recentOrder = recentDuplicate.get();
+            System.out.println("[OrderService] 경고: 최근 5초 이내에 동일한 주문이 이미 존재합니다 - 주문 ID: " + recentOrder.getId());
+            System.out.println("[OrderService] 기존 주문 생성 시간: " + recentOrder.getCreatedAt());
+            throw new RuntimeException("동일한 주문이 최근에 생성되었습니다. 주문 ID: " + recentOrder.getId());
         }
         
-        Order savedOrder = orderRepository.save(order);
+        // 주문 항목은 주문과 함께 writer가 같은 트랜잭션으로 저장
+        List<OrderItem> orderItems = prepared.items();
+
+        // 재고 예약 명령은 주문과 같은 orders.db 트랜잭션에 아웃박스로 기록 (inventory.db 반영은 릴레이 담당)
+        OrderOutboxEvent reserveEvent = orderOutboxRelay.reserveEvent(inventoryPlan);
+        Order savedOrder = orderGroupCommitWriter.write(order, orderItems, reserveEvent, requestKey);
         System.out.println("[OrderService] 주문 저장 완료 - 주문 ID: " + savedOrder.getId());
         System.out.println("[OrderService] 스레드: " + threadId);
 
-        // Add order items - save to order database
-        for (OrderItemDto item : request.getItems()) {
-            OrderItem orderItem = new OrderItem();
-            orderItem.setOrderId(savedOrder.getId());
-            orderItem.setMenuItemId(item.getMenuItemId());
-            orderItem.setQuantity(item.getQuantity());
-            orderItemRepository.save(orderItem);
+        // 주문 생성 시 자동 배달 스케줄 할당 제거 - 관리자가 나중에 할당하도록 함
+        // deliverySchedulingService.commitAssignment(savedOrder.getId(), assignmentPlan);
+
+        if (orderGroupCommitWriter.inOrderTransaction()) {
+            // 호출자 트랜잭션(주문 수정 등)이 커밋된 뒤 반영
+            orderOutboxRelay.dispatchAfterCommit(reserveEvent.getId());
+            return savedOrder;
         }
 
-        boolean inventoryCommitted = false;
-        try {
-            inventoryService.commitReservations(savedOrder.getId(), inventoryPlan);
-            inventoryCommitted = true;
-            // 주문 생성 시 자동 배달 스케줄 할당 제거 - 관리자가 나중에 할당하도록 함
-            // deliverySchedulingService.commitAssignment(savedOrder.getId(), assignmentPlan);
-        } catch (RuntimeException e) {
-            // Rollback in reverse order
-            try {
-                if (inventoryCommitted) {
-                    inventoryService.releaseReservationsForOrder(savedOrder.getId());
-                }
-            } catch (Exception rollbackEx) {
-                System.err.println("[OrderService] Failed to rollback inventory: " + rollbackEx.getMessage());
-            }
+        // 주문은 이미 커밋됨 - 바로 재고 반영을 시도하고, 잠금으로 지연되면 릴레이가 이어서 처리
+        OrderOutboxRelay.Dispatch dispatch = orderOutboxRelay.dispatch(reserveEvent.getId());
+        if (dispatch.result() == OrderOutboxRelay.DispatchResult.REJECTED) {
             try {
-                orderItemRepository.deleteByOrderId(savedOrder.getId());
-                orderRepository.deleteById(savedOrder.getId());
+                orderOutboxRelay.discardRejectedOrder(savedOrder.getId(), reserveEvent.getId(), dispatch.error());
             } catch (Exception rollbackEx) {
                 System.err.println("[OrderService] Failed to rollback order: " + rollbackEx.getMessage());
             }
-            throw new RuntimeException("주문 생성에 실패했습니다: " + e.getMessage(), e);
+            throw new RuntimeException("주문 생성에 실패했습니다: " + dispatch.error());
         }
 
         return savedOrder;
     }
 
+    /**
+     * 주문 검증과 가격 계산 (DB 쓰기 없음) - 단건 주문과 대량 주문 등록이 함께 사용한다.
+     * 메모리 가격표만 읽으므로 여러 스레드에서 동시에 호출해도 된다.
+     */
+    public PreparedOrder prepareOrder(Long userId, OrderRequest request, boolean loyaltyEligible) {
+        // Validate input
+        if (request.getDeliveryAddress() == null || request.getDeliveryAddress().trim().isEmpty()) {
+            throw new RuntimeException("배달 주소는 필수입니다.");
+        }
+        if (request.getDeliveryTime() == null || request.getDeliveryTime().trim().isEmpty()) {
+            throw new RuntimeException("배달 시간은 필수입니다.");
+        }
+
+        double totalPrice = applyLoyaltyDiscount(priceOrder(request), loyaltyEligible);
+        LocalDateTime deliveryDateTime = DeliveryTimeParser.parse(request.getDeliveryTime());
+
+        Order order = new Order();
+        order.setUserId(userId);
+        order.setDinnerTypeId(request.getDinnerTypeId());
+        order.setServingStyle(request.getServingStyle());
+        order.setDeliveryTime(request.getDeliveryTime());
+        order.setDeliveryAt(deliveryDateTime);
+        order.setDeliveryAddress(request.getDeliveryAddress());
+        order.setTotalPrice((int) Math.round(totalPrice));
+        order.setPaymentStatus("pending");
+        order.setPaymentMethod(request.getPaymentMethod());
+        order.setAdminApprovalStatus("PENDING");
+
+        List<OrderItem> orderItems = new ArrayList<>();
+        for (OrderItemDto item : request.getItems()) {
+            OrderItem orderItem = new OrderItem();
+            orderItem.setMenuItemId(item.getMenuItemId());
+            orderItem.setQuantity(item.getQuantity());
+            orderItems.add(orderItem);
+        }
+        return new PreparedOrder(order, orderItems, deliveryDateTime);
+    }
+
+    // 배달 완료 5회 이상 + 단골 동의 시 10% 할인
+    public boolean isLoyaltyEligible(User user) {
+        long deliveredOrders = userOrderStatsService.getDeliveredCount(user.getId());
+        return Boolean.TRUE.equals(user.getLoyaltyConsent()) && deliveredOrders >= 5;
+    }
+
+    /**
+     * 사용자 주문의 상태별 개수 (GROUP BY 집계 - 주문 목록을 불러오지 않음)
+     * 보관 DB로 옮겨진 주문도 함께 센다.
+     */
+    public Map<String, Long> getUserOrderStatusCounts(Long userId) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Object[] row : orderRepository.countByStatusForUser(userId)) {
+            counts.merge(String.valueOf(row[0]), ((Number) row[1]).longValue(), Long::sum);
+        }
+        for (Object[] row : archivedOrderRepository.countByStatusForUser(userId)) {
+            counts.merge(String.valueOf(row[0]), ((Number) row[1]).longValue(), Long::sum);
+        }
+        return counts;
+    }
+
     public List<Order> getUserOrders(Long userId) {
         System.out.println("[OrderService] getUserOrders 호출 - 사용자 ID: " + userId);
         
@@ -291,23 +252,14 @@ public class OrderService {
             throw new RuntimeException("이미 취소된 주문입니다.");
         }
 
-        // Cancel inventory reservations (main database)
-        boolean inventoryCancelled = false;
-        try {
-            inventoryService.releaseReservationsForOrder(orderId);
-            inventoryCancelled = true;
-            System.out.println("[OrderService] 주문 " + orderId + "의 재고 예약이 취소되었습니다.");
-        } catch (Exception e) {
-            System.err.println("[OrderService] 재고 예약 취소 실패: " + e.getMessage());
-            e.printStackTrace();
-            // Continue with cancellation even if inventory release fails
-            // This is acceptable as the order cancellation should proceed
-        }
+        // Cancel inventory reservations - 주문 취소와 같은 트랜잭션에 아웃박스로 기록, 커밋 후 릴레이가 반영
+        orderOutboxRelay.enqueue(orderOutboxRelay.releaseEvent(orderId));
+        System.out.println("[OrderService] 주문 " + orderId + "의 재고 예약 취소가 기록되었습니다.");
 
         // Cancel delivery schedule (main database)
         boolean scheduleCancelled = false;
         try {
-            deliverySchedulingService.cancelScheduleForOrder(orderId);
+            sqliteRetryPolicy.run("schedule.cancel", () -> deliverySchedulingService.cancelScheduleForOrder(orderId));
             scheduleCancelled = true;
             System.out.println("[OrderService] 주문 " + orderId + "의 배달 스케줄이 취소되었습니다.");
         } catch (Exception e) {
@@ -316,15 +268,13 @@ public class OrderService {
             // Continue with cancellation even if schedule cancellation fails
         }
 
-        // Update order status (order database)
+        // Update order status (order database) - compare-and-set, 동시에 배달 완료되었으면 실패
         try {
-            order.setStatus("cancelled");
-            if (!"REJECTED".equalsIgnoreCase(order.getAdminApprovalStatus())) {
-                order.setAdminApprovalStatus("CANCELLED");
-            }
-            Order cancelledOrder = orderRepository.save(order);
-            System.out.println("[OrderService] 주문 " + orderId + "가 취소되었습니다. (재고: " + 
-                    (inventoryCancelled ? "취소됨" : "실패") + ", 스케줄: " + 
+            orderStatusMachine.transition(orderId, OrderStatusMachine.CANCELLED);
+            orderRepository.updateAdminApprovalStatusUnlessRejected(orderId, "CANCELLED");
+            OrderChangeLog.markChanged(orderId, order.getUserId());
+            Order cancelledOrder = orderRepository.findById(orderId).orElse(order);
+            System.out.println("[OrderService] 주문 " + orderId + "가 취소되었습니다. (재고: 기록됨, 스케줄: " + 
                     (scheduleCancelled ? "취소됨" : "실패") + ")");
             return cancelledOrder;
         } catch (Exception e) {
@@ -355,10 +305,9 @@ public class OrderService {
         // (매일 자정에 전날 예약이 자동으로 삭제됨)
         System.out.println("[OrderService] 주문 " + orderId + " 배달 완료 - 재고는 주문 시 이미 차감되었습니다.");
 
-        // Update order status (order database)
+        // Update order status (order database) - compare-and-set, 동시에 취소되었으면 실패
         try {
-            order.setStatus("delivered");
-            orderRepository.save(order);
+            orderStatusMachine.transition(orderId, OrderStatusMachine.DELIVERED);
             System.out.println("[OrderService] 주문 " + orderId + "가 배달 완료로 처리되었습니다.");
         } catch (Exception e) {
             System.err.println("[OrderService] 주문 상태 업데이트 실패: " + e.getMessage());
@@ -387,8 +336,23 @@ public class OrderService {
             throw new RuntimeException("이 주문을 수정할 권한이 없습니다.");
         }
 
+        if ("delivered".equals(order.getStatus())) {
+            throw new RuntimeException("이미 배달 완료된 주문은 수정할 수 없습니다.");
+        }
+        if ("cancelled".equals(order.getStatus())) {
+            throw new RuntimeException("취소된 주문은 수정할 수 없습니다.");
+        }
+        if (request.getDeliveryAddress() == null || request.getDeliveryAddress().trim().isEmpty()) {
+            throw new RuntimeException("배달 주소는 필수입니다.");
+        }
+        if (request.getDeliveryTime() == null || request.getDeliveryTime().trim().isEmpty()) {
+            throw new RuntimeException("배달 시간은 필수입니다.");
+        }
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("사용자를 찾을 수 없습니다."));
+
         // 배달 시간 확인 - 조리 3시간 전까지만 수정 가능
-        LocalDateTime deliveryDateTime = parseDeliveryTime(request.getDeliveryTime());
+        LocalDateTime deliveryDateTime = DeliveryTimeParser.parse(request.getDeliveryTime());
         LocalDateTime now = LocalDateTime.now();
         long hoursUntilDelivery = java.time.Duration.between(now, deliveryDateTime).toHours();
         
@@ -396,45 +360,131 @@ public class OrderService {
             throw new RuntimeException("주문 수정은 배달 시간 3시간 전까지만 가능합니다.");
         }
 
-        // 기존 주문 취소 처리 (재귀 호출 방지를 위해 직접 처리)
-        order.setStatus("cancelled");
-        order.setAdminApprovalStatus("CANCELLED");
-        
-        // 재고 예약 취소
-        try {
-            inventoryService.releaseReservationsForOrder(orderId);
-        } catch (Exception e) {
-            System.err.println("[OrderService] 재고 예약 취소 실패: " + e.getMessage());
+        // 변경된 부분만 반영 (주문 ID 유지) - 취소 후 재생성하지 않음
+        double totalPrice = applyLoyaltyDiscount(priceOrder(request), isLoyaltyEligible(user));
+
+        boolean deliveryChanged = !request.getDeliveryTime().equals(order.getDeliveryTime())
+                || !request.getDeliveryAddress().equals(order.getDeliveryAddress());
+        boolean itemsChanged = applyItemDelta(orderId, request.getItems());
+
+        // 재고 예약은 바뀐 항목만 조정 (늘어나는 수량만 용량 확인, 커밋 후 아웃박스로 반영)
+        if (itemsChanged || deliveryChanged) {
+            InventoryService.InventoryReservationPlan adjustment =
+                    inventoryService.prepareAdjustment(orderId, request.getItems(), deliveryDateTime);
+            orderOutboxRelay.enqueue(orderOutboxRelay.adjustEvent(orderId, adjustment));
         }
-        
-        // 배달 스케줄 취소
-        try {
-            deliverySchedulingService.cancelScheduleForOrder(orderId);
-        } catch (Exception e) {
-            System.err.println("[OrderService] 배달 스케줄 취소 실패: " + e.getMessage());
+
+        // 수정 내용만 UPDATE (상태 열은 건드리지 않음) - 그 사이 취소/배달 완료되었으면 0
+        if (orderRepository.updateDetailsIfStatusIn(orderId, request.getDinnerTypeId(), request.getServingStyle(),
+                request.getDeliveryTime(), deliveryDateTime, request.getDeliveryAddress(),
+                (int) Math.round(totalPrice), request.getPaymentMethod(), OrderStatusMachine.OPEN_STATUSES) == 0) {
+            throw new RuntimeException("다른 요청이 주문 상태를 먼저 변경했습니다. 다시 시도해주세요.");
         }
-        
-        orderRepository.save(order);
-        
-        // 새 주문 생성 (관리자 승인 필요)
-        return createOrderInternal(userId, request);
-    }
+        // 수정된 주문은 다시 관리자 승인 필요 - 승인 상태를 먼저 돌리고 상태는 compare-and-set으로 대기 중으로
+        orderRepository.updateAdminApprovalStatusIfStatusIn(orderId, "PENDING", OrderStatusMachine.OPEN_STATUSES);
+        OrderStatusMachine.Transition transition = orderStatusMachine.transition(orderId, OrderStatusMachine.PENDING);
+        if (!transition.changed()) {
+            orderEventBus.publishApproval(orderId, order.getUserId(), transition.status(), "PENDING");
+        }
+        // 항목만 바뀌어 주문 행이 그대로인 경우에도 사용자 주문 버전을 올림
+        OrderChangeLog.markChanged(orderId, order.getUserId());
+        Order modifiedOrder = orderRepository.findById(orderId).orElse(order);
 
-    private LocalDateTime parseDeliveryTime(String deliveryTime) {
-        // datetime-local 형식 지원 (예: "2025-11-21T10:00" 또는 "2025-11-21T10:00:00")
-        DateTimeFormatter[] formatters = {
-            DateTimeFormatter.ISO_LOCAL_DATE_TIME,  // "2025-11-21T10:00:00"
-            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm")  // "2025-11-21T10:00"
-        };
-        
-        for (DateTimeFormatter formatter : formatters) {
+        // 배달 스케줄은 시간/주소가 바뀐 경우에만 기존 스케줄을 갱신
+        if (deliveryChanged) {
             try {
-                return LocalDateTime.parse(deliveryTime, formatter);
-            } catch (DateTimeParseException e) {
-                // 다음 포맷 시도
+                sqliteRetryPolicy.run("schedule.reschedule", () -> deliverySchedulingService
+                        .rescheduleForOrder(orderId, deliveryDateTime, request.getDeliveryAddress()));
+            } catch (Exception e) {
+                System.err.println("[OrderService] 배달 스케줄 변경 실패: " + e.getMessage());
             }
         }
-        
-        throw new RuntimeException("잘못된 배달 시간 형식입니다. (예: 2025-11-19T18:00 또는 2025-11-19T18:00:00)");
+
+        System.out.println("[OrderService] 주문 " + orderId + " 수정 완료 (항목 변경: " + itemsChanged
+                + ", 배달 정보 변경: " + deliveryChanged + ")");
+        return modifiedOrder;
+    }
+
+    /**
+     * 주문 항목 diff 반영 - 수량이 바뀐 행만 갱신하고, 빠진 항목은 삭제, 새 항목만 추가한다.
+     */
+    private boolean applyItemDelta(Long orderId, List<OrderItemDto> requestedItems) {
+        Map<Long, Integer> target = new LinkedHashMap<>();
+        for (OrderItemDto item : requestedItems) {
+            target.merge(item.getMenuItemId(), item.getQuantity(), Integer::sum);
+        }
+
+        List<OrderItem> changed = new ArrayList<>();
+        List<OrderItem> removed = new ArrayList<>();
+        Set<Long> kept = new HashSet<>();
+        for (OrderItem item : orderItemRepository.findByOrderId(orderId)) {
+            Integer quantity = target.get(item.getMenuItemId());
+            // 같은 메뉴 아이템이 여러 행이면 첫 행에 합친다
+            if (quantity == null || !kept.add(item.getMenuItemId())) {
+                removed.add(item);
+                continue;
+            }
+            if (!quantity.equals(item.getQuantity())) {
+                item.setQuantity(quantity);
+                changed.add(item);
+            }
+        }
+        for (Map.Entry<Long, Integer> entry : target.entrySet()) {
+            if (!kept.contains(entry.getKey())) {
+                OrderItem orderItem = new OrderItem();
+                orderItem.setOrderId(orderId);
+                orderItem.setMenuItemId(entry.getKey());
+                orderItem.setQuantity(entry.getValue());
+                changed.add(orderItem);
+            }
+        }
+
+        if (!changed.isEmpty()) {
+            orderItemRepository.saveAll(changed);
+        }
+        if (!removed.isEmpty()) {
+            orderItemRepository.deleteAll(removed);
+        }
+        return !changed.isEmpty() || !removed.isEmpty();
     }
+
+    /**
+     * 디너 기본가 × 스타일 + 메뉴 아이템 가격 (메모리 가격표 사용, 메뉴 변경 시 자동 갱신)
+     */
+    private double priceOrder(OrderRequest request) {
+        double basePrice = menuPricingTable.dinnerPrice(request.getDinnerTypeId(), request.getServingStyle());
+        if (basePrice == MenuPricingTable.NOT_FOUND) {
+            throw new RuntimeException("유효하지 않은 디너 타입입니다.");
+        }
+
+        // Validate serving style for Champagne Feast
+        if (menuPricingTable.requiresPremiumStyle(request.getDinnerTypeId()) && !menuPricingTable.isPremiumStyle(request.getServingStyle())) {
+            throw new RuntimeException("샴페인 축제 디너는 그랜드 또는 디럭스 스타일만 주문 가능합니다.");
+        }
+
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            throw new RuntimeException("주문 항목이 비어있습니다.");
+        }
+        double itemsPrice = 0;
+        for (OrderItemDto item : request.getItems()) {
+            if (item.getMenuItemId() == null) {
+                throw new RuntimeException("Menu item ID is required");
+            }
+            if (item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new RuntimeException("Menu item quantity must be greater than 0");
+            }
+            int unitPrice = menuPricingTable.menuItemPrice(item.getMenuItemId());
+            if (unitPrice == MenuPricingTable.NOT_FOUND) {
+                throw new RuntimeException("Invalid menu item ID: " + item.getMenuItemId());
+            }
+            itemsPrice += unitPrice * item.getQuantity();
+        }
+        return basePrice + itemsPrice;
+    }
+
+    private static double applyLoyaltyDiscount(double totalPrice, boolean loyaltyEligible) {
+        return loyaltyEligible ? totalPrice * 0.9 : totalPrice;
+    }
+
+    public record PreparedOrder(Order order, List<OrderItem> items, LocalDateTime deliveryTime) { }
 }
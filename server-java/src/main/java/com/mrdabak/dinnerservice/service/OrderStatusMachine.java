@@ -0,0 +1,132 @@
+package com.mrdabak.dinnerservice.service;
+
+import com.mrdabak.dinnerservice.model.OrderChangeLog;
+import com.mrdabak.dinnerservice.repository.order.OrderRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 주문 상태 전이 (compare-and-set)
+ * 주문을 읽어 Java에서 비교한 뒤 전체 엔티티를 저장하는 대신,
+ * UPDATE orders SET status = ? WHERE id = ? AND status IN (허용된 이전 상태) 한 문장으로 바꾸고
+ * 영향받은 행 수로 성공 여부를 판단한다. 동시에 들어온 직원 요청끼리 서로의 변경을 덮어쓰지 않는다.
+ *
+ * 전이 규칙은 기존과 같다: 취소/배달 완료된 주문은 다른 상태로 바꿀 수 없고, 나머지는 자유롭게 이동 가능.
+ */
+@Component
+public class OrderStatusMachine {
+
+    public static final String PENDING = "pending";
+    public static final String COOKING = "cooking";
+    public static final String READY = "ready";
+    public static final String OUT_FOR_DELIVERY = "out_for_delivery";
+    public static final String DELIVERED = "delivered";
+    public static final String CANCELLED = "cancelled";
+
+    public static final List<String> STATUSES = List.of(PENDING, COOKING, READY, OUT_FOR_DELIVERY, DELIVERED, CANCELLED);
+    public static final List<String> OPEN_STATUSES = List.of(PENDING, COOKING, READY, OUT_FOR_DELIVERY);
+
+    private final OrderRepository orderRepository;
+    private final UserOrderStatsService userOrderStatsService;
+    private final OrderEventBus orderEventBus;
+    private final TransactionTemplate orderTransactionTemplate;
+
+    public OrderStatusMachine(OrderRepository orderRepository,
+                              UserOrderStatsService userOrderStatsService,
+                              OrderEventBus orderEventBus,
+                              @Qualifier("orderTransactionManager") PlatformTransactionManager orderTransactionManager) {
+        this.orderRepository = orderRepository;
+        this.userOrderStatsService = userOrderStatsService;
+        this.orderEventBus = orderEventBus;
+        this.orderTransactionTemplate = new TransactionTemplate(orderTransactionManager);
+    }
+
+    /**
+     * 상태 변경. 이미 목표 상태면 아무것도 바꾸지 않고 changed=false로 반환한다.
+     * 호출자의 orders.db 트랜잭션이 있으면 함께 커밋된다 (사용자 통계 갱신 포함).
+     */
+    public Transition transition(Long orderId, String target) {
+        if (orderId == null) {
+            throw new IllegalArgumentException("주문 ID는 필수입니다.");
+        }
+        if (!STATUSES.contains(target)) {
+            throw new IllegalArgumentException("유효하지 않은 상태입니다: " + target);
+        }
+        return orderTransactionTemplate.execute(status -> {
+            OrderRepository.StatusView current = orderRepository.findStatusById(orderId)
+                    .orElseThrow(() -> new RuntimeException("주문을 찾을 수 없습니다: " + orderId));
+            if (target.equals(current.getStatus())) {
+                return new Transition(orderId, current.getUserId(), current.getStatus(), target, current.getAdminApprovalStatus(), false);
+            }
+            checkAllowed(current.getStatus(), target);
+
+            if (orderRepository.compareAndSetStatus(orderId, target, allowedSources(target)) == 0) {
+                // 읽은 뒤 다른 요청이 먼저 상태를 바꿈
+                String latest = orderRepository.findStatusById(orderId)
+                        .map(OrderRepository.StatusView::getStatus)
+                        .orElseThrow(() -> new RuntimeException("주문을 찾을 수 없습니다: " + orderId));
+                if (target.equals(latest)) {
+                    return new Transition(orderId, current.getUserId(), latest, target, current.getAdminApprovalStatus(), false);
+                }
+                checkAllowed(latest, target);
+                throw new RuntimeException("다른 요청이 주문 상태를 먼저 변경했습니다. 다시 시도해주세요.");
+            }
+
+            // 일괄 UPDATE는 엔티티 콜백을 거치지 않으므로 직접 기록
+            OrderChangeLog.markChanged(orderId, current.getUserId());
+            // 허용된 이전 상태에는 delivered가 없으므로 배달 완료 수 증감은 목표 상태로만 결정된다
+            userOrderStatsService.recordStatusChange(current.getUserId(), current.getStatus(), target);
+            orderEventBus.publishStatus(orderId, current.getUserId(), current.getStatus(), target,
+                    current.getAdminApprovalStatus());
+            System.out.println("[OrderStatusMachine] 주문 " + orderId + " 상태 변경: " + current.getStatus() + " -> " + target);
+            return new Transition(orderId, current.getUserId(), current.getStatus(), target, current.getAdminApprovalStatus(), true);
+        });
+    }
+
+    /**
+     * 후속 처리(재고 소진 등)가 실패했을 때 방금 바꾼 상태를 되돌린다. 그 사이 다른 요청이 바꿨으면 false.
+     */
+    public boolean revert(Transition transition) {
+        if (!transition.changed()) {
+            return true;
+        }
+        Boolean reverted = orderTransactionTemplate.execute(status -> {
+            if (orderRepository.compareAndSetStatus(transition.orderId(), transition.previousStatus(),
+                    List.of(transition.status())) == 0) {
+                return false;
+            }
+            OrderChangeLog.markChanged(transition.orderId(), transition.userId());
+            userOrderStatsService.recordStatusChange(transition.userId(), transition.status(), transition.previousStatus());
+            orderEventBus.publishStatus(transition.orderId(), transition.userId(), transition.status(),
+                    transition.previousStatus(), transition.adminApprovalStatus());
+            return true;
+        });
+        return Boolean.TRUE.equals(reverted);
+    }
+
+    private static void checkAllowed(String current, String target) {
+        if (CANCELLED.equals(current)) {
+            throw new RuntimeException("취소된 주문의 상태를 변경할 수 없습니다.");
+        }
+        if (DELIVERED.equals(current)) {
+            throw new RuntimeException("배달 완료된 주문의 상태를 변경할 수 없습니다.");
+        }
+        if (!OPEN_STATUSES.contains(current)) {
+            throw new RuntimeException("알 수 없는 주문 상태입니다: " + current);
+        }
+    }
+
+    private static List<String> allowedSources(String target) {
+        List<String> sources = new ArrayList<>(OPEN_STATUSES);
+        sources.remove(target);
+        return sources;
+    }
+
+    public record Transition(Long orderId, Long userId, String previousStatus, String status,
+                             String adminApprovalStatus, boolean changed) { }
+}
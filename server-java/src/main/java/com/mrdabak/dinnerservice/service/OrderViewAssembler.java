@@ -0,0 +1,161 @@
+package com.mrdabak.dinnerservice.service;
+
+import com.mrdabak.dinnerservice.model.DinnerType;
+import com.mrdabak.dinnerservice.model.MenuItem;
+import com.mrdabak.dinnerservice.model.Order;
+import com.mrdabak.dinnerservice.model.OrderItem;
+import com.mrdabak.dinnerservice.model.User;
+import com.mrdabak.dinnerservice.repository.DinnerTypeRepository;
+import com.mrdabak.dinnerservice.repository.MenuItemRepository;
+import com.mrdabak.dinnerservice.repository.UserRepository;
+import com.mrdabak.dinnerservice.repository.order.OrderItemRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 주문 목록 DTO 조립기
+ * 주문 N건에 필요한 주문 항목/사용자/디너/메뉴 아이템 ID를 먼저 모은 뒤
+ * 종류별로 findByOrderIdIn / findAllById 한 번씩(ID가 많으면 묶음 단위로) 조회하고 메모리에서 합친다.
+ * 주문 수와 관계없이 쿼리 수가 일정하다 (주문마다 findById 하던 5N+M 쿼리 → 4개 + 묶음 수).
+ */
+@Component
+public class OrderViewAssembler {
+
+    // SQLite 바인드 변수 개수 제한을 넘지 않도록 IN 절을 나눠 조회
+    private static final int IN_CHUNK_SIZE = 500;
+
+    private final OrderItemRepository orderItemRepository;
+    private final UserRepository userRepository;
+    private final DinnerTypeRepository dinnerTypeRepository;
+    private final MenuItemRepository menuItemRepository;
+
+    public OrderViewAssembler(OrderItemRepository orderItemRepository,
+                              UserRepository userRepository,
+                              DinnerTypeRepository dinnerTypeRepository,
+                              MenuItemRepository menuItemRepository) {
+        this.orderItemRepository = orderItemRepository;
+        this.userRepository = userRepository;
+        this.dinnerTypeRepository = dinnerTypeRepository;
+        this.menuItemRepository = menuItemRepository;
+    }
+
+    /**
+     * 주어진 순서대로 조립된 주문 목록을 반환한다.
+     */
+    public List<OrderReadModel.OrderView> assemble(List<Order> orders) {
+        return assemble(orders, orderItemRepository::findByOrderIdIn);
+    }
+
+    /**
+     * 주문 항목을 다른 곳(보관 DB 등)에서 읽어 조립한다. itemLoader는 주문 ID 묶음마다 호출된다.
+     */
+    public List<OrderReadModel.OrderView> assemble(List<Order> orders, Function<List<Long>, List<OrderItem>> itemLoader) {
+        if (orders.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> orderIds = new HashSet<>();
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> dinnerTypeIds = new HashSet<>();
+        for (Order order : orders) {
+            orderIds.add(order.getId());
+            userIds.add(order.getUserId());
+            if (order.getCookingEmployeeId() != null) {
+                userIds.add(order.getCookingEmployeeId());
+            }
+            if (order.getDeliveryEmployeeId() != null) {
+                userIds.add(order.getDeliveryEmployeeId());
+            }
+            dinnerTypeIds.add(order.getDinnerTypeId());
+        }
+
+        Map<Long, List<OrderItem>> itemsByOrder = new HashMap<>();
+        Set<Long> menuItemIds = new HashSet<>();
+        for (OrderItem item : inChunks(orderIds, itemLoader)) {
+            itemsByOrder.computeIfAbsent(item.getOrderId(), id -> new ArrayList<>()).add(item);
+            menuItemIds.add(item.getMenuItemId());
+        }
+        Map<Long, User> users = byId(inChunks(userIds, userRepository::findAllById), User::getId);
+        Map<Long, DinnerType> dinnerTypes = byId(inChunks(dinnerTypeIds, dinnerTypeRepository::findAllById), DinnerType::getId);
+        Map<Long, MenuItem> menuItems = byId(inChunks(menuItemIds, menuItemRepository::findAllById), MenuItem::getId);
+
+        List<OrderReadModel.OrderView> views = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            views.add(assemble(order, itemsByOrder.getOrDefault(order.getId(), List.of()), users, dinnerTypes, menuItems));
+        }
+        return views;
+    }
+
+    private static OrderReadModel.OrderView assemble(Order order, List<OrderItem> items, Map<Long, User> users,
+                                                     Map<Long, DinnerType> dinnerTypes, Map<Long, MenuItem> menuItems) {
+        User customer = users.get(order.getUserId());
+        User cookingEmployee = order.getCookingEmployeeId() != null ? users.get(order.getCookingEmployeeId()) : null;
+        User deliveryEmployee = order.getDeliveryEmployeeId() != null ? users.get(order.getDeliveryEmployeeId()) : null;
+        DinnerType dinner = dinnerTypes.get(order.getDinnerTypeId());
+
+        List<Map<String, Object>> itemDtos = new ArrayList<>(items.size());
+        for (OrderItem item : items) {
+            MenuItem menuItem = menuItems.get(item.getMenuItemId());
+            Map<String, Object> itemMap = new HashMap<>();
+            itemMap.put("id", item.getId());
+            itemMap.put("menu_item_id", item.getMenuItemId());
+            itemMap.put("quantity", item.getQuantity());
+            if (menuItem != null) {
+                itemMap.put("name", menuItem.getName());
+                itemMap.put("name_en", menuItem.getNameEn());
+                itemMap.put("price", menuItem.getPrice());
+            }
+            itemDtos.add(Collections.unmodifiableMap(itemMap));
+        }
+
+        return new OrderReadModel.OrderView(
+                order.getId(),
+                order.getUserId(),
+                order.getDinnerTypeId(),
+                order.getServingStyle(),
+                order.getDeliveryTime(),
+                order.getDeliveryAt(),
+                order.getDeliveryAddress(),
+                order.getTotalPrice(),
+                order.getStatus(),
+                order.getPaymentStatus(),
+                order.getAdminApprovalStatus(),
+                order.getCreatedAt(),
+                order.getCookingEmployeeId(),
+                cookingEmployee != null ? cookingEmployee.getName() : null,
+                order.getDeliveryEmployeeId(),
+                deliveryEmployee != null ? deliveryEmployee.getName() : null,
+                customer != null ? customer.getName() : null,
+                customer != null ? customer.getEmail() : null,
+                customer != null ? customer.getPhone() : null,
+                dinner != null ? dinner.getName() : null,
+                dinner != null ? dinner.getNameEn() : null,
+                Collections.unmodifiableList(itemDtos));
+    }
+
+    private static <T> List<T> inChunks(Collection<Long> ids, Function<List<Long>, List<T>> query) {
+        List<Long> idList = new ArrayList<>(ids);
+        idList.remove(null);
+        List<T> result = new ArrayList<>();
+        for (int from = 0; from < idList.size(); from += IN_CHUNK_SIZE) {
+            result.addAll(query.apply(idList.subList(from, Math.min(from + IN_CHUNK_SIZE, idList.size()))));
+        }
+        return result;
+    }
+
+    private static <T> Map<Long, T> byId(List<T> entities, Function<T, Long> id) {
+        Map<Long, T> map = new HashMap<>();
+        for (T entity : entities) {
+            map.put(id.apply(entity), entity);
+        }
+        return map;
+    }
+}
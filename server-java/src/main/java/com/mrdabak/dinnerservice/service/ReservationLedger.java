@@ -0,0 +1,187 @@
+package com.mrdabak.dinnerservice.service;
+
+import com.mrdabak.dinnerservice.model.ReservationTotal;
+import com.mrdabak.dinnerservice.repository.inventory.InventoryReservationRepository;
+import com.mrdabak.dinnerservice.repository.inventory.ReservationTotalRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 재고 예약 수량 장부 (메모리)
+ * (메뉴 아이템, 날짜 윈도우)별 예약 수량 합계를 AtomicInteger로 들고 있어, 용량 검사 때 inventory_reservations SUM 조회를 하지 않는다.
+ * 합계는 reservation_totals 테이블에도 같은 트랜잭션에서 증감해 두고, 시작 시 그 테이블(날짜별 한 행)을 읽어 채운다.
+ * 이후에는 예약 저장/조정/취소/만료 경로에서 함께 갱신한다.
+ * (조리 시작 시 소진된 예약도 행이 남아 합계에 포함되므로 소진은 장부를 바꾸지 않는다)
+ *
+ * 예약은 compare-and-set으로 "용량 이하일 때만 더하기"를 원자적으로 수행하고, 트랜잭션이 롤백되면 되돌린다.
+ * 줄어드는 쪽(취소/만료/수량 감소)은 커밋된 뒤에만 빼서, 롤백될 변경이 다른 주문에 용량을 내주지 않게 한다.
+ * 빼는 쪽은 테이블과 같이 0 아래로 내려가지 않게 한다 (중복 해제 등으로 음수가 되어 용량이 부풀지 않도록).
+ * 예약 행 자체는 기존대로 inventory.db에 저장되며 장부는 그 합계의 사본이다.
+ */
+@Component
+public class ReservationLedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationLedger.class);
+
+    private final InventoryReservationRepository inventoryReservationRepository;
+    private final ReservationTotalRepository reservationTotalRepository;
+    private final TransactionTemplate inventoryTransactionTemplate;
+    private final Map<Key, AtomicInteger> reserved = new ConcurrentHashMap<>();
+
+    public ReservationLedger(InventoryReservationRepository inventoryReservationRepository,
+                             ReservationTotalRepository reservationTotalRepository,
+                             @Qualifier("inventoryTransactionManager") PlatformTransactionManager inventoryTransactionManager) {
+        this.inventoryReservationRepository = inventoryReservationRepository;
+        this.reservationTotalRepository = reservationTotalRepository;
+        this.inventoryTransactionTemplate = new TransactionTemplate(inventoryTransactionManager);
+    }
+
+    @PostConstruct
+    public void load() {
+        backfillTotals();
+        reserved.clear();
+        for (ReservationTotal total : reservationTotalRepository.findAll()) {
+            counter(total.getMenuItemId(), total.getWindowStart()).set(total.getReserved() != null ? Math.max(0, total.getReserved()) : 0);
+        }
+        logger.info("[ReservationLedger] 재고 예약 장부 적재 - {}개 (메뉴 아이템, 날짜)", reserved.size());
+    }
+
+    /**
+     * 합계 테이블이 비어 있고 예약이 있으면 예약 행으로 한 번 채운다. (테이블 도입 이전 데이터)
+     */
+    private void backfillTotals() {
+        try {
+            if (reservationTotalRepository.count() > 0) {
+                return;
+            }
+            Integer rows = inventoryTransactionTemplate.execute(status -> {
+                List<Object[]> sums = inventoryReservationRepository.sumQuantityByMenuItemAndWindow();
+                for (Object[] row : sums) {
+                    reservationTotalRepository.save(new ReservationTotal((Long) row[0], (LocalDateTime) row[1], ((Number) row[2]).intValue()));
+                }
+                return sums.size();
+            });
+            if (rows != null && rows > 0) {
+                logger.info("[ReservationLedger] 기존 예약으로 reservation_totals {}행 초기화", rows);
+            }
+        } catch (Exception e) {
+            logger.error("[ReservationLedger] reservation_totals 초기화 실패: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 기간 내 예약 수량 합계 (reservation_totals - 날짜별 한 행씩만 읽음)
+     */
+    public int reservedBetween(Long menuItemId, LocalDateTime start, LocalDateTime end) {
+        Integer sum = reservationTotalRepository.sumWeeklyReservedByMenuItemId(menuItemId, start, end);
+        return sum != null ? sum : 0;
+    }
+
+    /**
+     * 현재 예약 수량 (진행 중인 트랜잭션이 잡아 둔 수량 포함)
+     */
+    public int reserved(Long menuItemId, LocalDateTime windowStart) {
+        AtomicInteger counter = reserved.get(new Key(menuItemId, windowStart));
+        return counter != null ? counter.get() : 0;
+    }
+
+    /**
+     * 더하지 않고 용량만 확인 (주문 접수 전 사전 검증용)
+     */
+    public Attempt check(Long menuItemId, LocalDateTime windowStart, int quantity, int maxCapacity) {
+        int current = reserved(menuItemId, windowStart);
+        return new Attempt((long) current + quantity <= maxCapacity, current);
+    }
+
+    /**
+     * 용량 이하일 때만 수량을 더한다 (CAS). 성공하면 reservation_totals도 현재 트랜잭션에서 늘리고,
+     * 트랜잭션이 롤백되면 메모리 수량을 되돌린다 (테이블은 롤백으로 함께 되돌려짐).
+     */
+    public Attempt reserve(Long menuItemId, LocalDateTime windowStart, int quantity, int maxCapacity) {
+        AtomicInteger counter = counter(menuItemId, windowStart);
+        while (true) {
+            int current = counter.get();
+            if ((long) current + quantity > maxCapacity) {
+                return new Attempt(false, current);
+            }
+            if (counter.compareAndSet(current, current + quantity)) {
+                afterRollback(() -> subtract(counter, quantity));
+                try {
+                    reservationTotalRepository.addReserved(menuItemId, windowStart, quantity);
+                } catch (RuntimeException e) {
+                    // 트랜잭션 밖에서 호출되어 롤백 훅이 없는 경우에도 장부가 어긋나지 않도록
+                    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                        subtract(counter, quantity);
+                    }
+                    throw e;
+                }
+                return new Attempt(true, current);
+            }
+        }
+    }
+
+    /**
+     * 예약 수량을 뺀다. reservation_totals는 현재 트랜잭션에서 줄이고, 메모리는 커밋된 뒤에만 줄인다.
+     * 둘 다 0 아래로는 내려가지 않는다 (테이블은 MAX(0, ...)).
+     */
+    public void release(Long menuItemId, LocalDateTime windowStart, int quantity) {
+        if (menuItemId == null || windowStart == null || quantity == 0) {
+            return;
+        }
+        reservationTotalRepository.addReserved(menuItemId, windowStart, -quantity);
+        Runnable apply = () -> subtract(counter(menuItemId, windowStart), quantity);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply.run();
+            }
+        });
+    }
+
+    private void afterRollback(Runnable undo) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    undo.run();
+                }
+            }
+        });
+    }
+
+    // reservation_totals.addReserved의 MAX(0, reserved + delta)와 같은 규칙
+    private static void subtract(AtomicInteger counter, int quantity) {
+        counter.updateAndGet(current -> Math.max(0, current - quantity));
+    }
+
+    private AtomicInteger counter(Long menuItemId, LocalDateTime windowStart) {
+        return reserved.computeIfAbsent(new Key(menuItemId, windowStart), key -> new AtomicInteger());
+    }
+
+    private record Key(Long menuItemId, LocalDateTime windowStart) { }
+
+    /**
+     * 용량 확인 결과. alreadyReserved는 요청 직전의 예약 수량.
+     */
+    public record Attempt(boolean accepted, int alreadyReserved) { }
+}
@@ -0,0 +1,196 @@
+package com.mrdabak.dinnerservice.service;
+
+import org.sqlite.SQLiteErrorCode;
+import org.sqlite.SQLiteException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * SQLite 잠금 오류 재시도 정책 (orders.db / inventory.db / schedule.db 쓰기 공통)
+ * - 예외 메시지 문자열이 아닌 SQLiteException 결과 코드(BUSY, BUSY_SNAPSHOT, LOCKED 등)로 재시도 여부를 판단한다.
+ * - 대기 시간은 지수 백오프 + jitter이며, 재시도는 호출 스레드에서 동기로 수행한다 (호출 스레드가 백오프 동안 대기).
+ *   별도 스레드 풀에서 재시도를 기다리지 않으므로, 재시도되는 작업 안에서 다시 execute를 호출(중첩)해도 풀 고갈로 멈추지 않는다.
+ *   주문 저장(orders.write)은 OrderGroupCommitWriter의 writer 스레드에서 호출되므로 요청 스레드는 이 대기를 직접 하지 않는다.
+ * - 작업별 재시도 횟수와 대기 시간 히스토그램을 집계한다. (/api/admin/metrics/sqlite-retry)
+ * 재시도는 작업 전체를 다시 실행하므로 action은 자체 트랜잭션을 여는 단위(서비스 메서드, TransactionTemplate)여야 한다.
+ */
+@Component
+public class SqliteRetryPolicy {
+
+    private static final Set<SQLiteErrorCode> RETRYABLE_CODES = EnumSet.of(
+            SQLiteErrorCode.SQLITE_BUSY,
+            SQLiteErrorCode.SQLITE_BUSY_RECOVERY,
+            SQLiteErrorCode.SQLITE_BUSY_SNAPSHOT,
+            SQLiteErrorCode.SQLITE_BUSY_TIMEOUT,
+            SQLiteErrorCode.SQLITE_LOCKED,
+            SQLiteErrorCode.SQLITE_LOCKED_SHAREDCACHE
+    );
+    private static final int PRIMARY_BUSY = 5;
+    private static final int PRIMARY_LOCKED = 6;
+
+    // 대기 시간 히스토그램 버킷 상한 (ms), 마지막 버킷은 그 이상 전부
+    private static final long[] WAIT_BUCKETS_MS = {10, 25, 50, 100, 250, 500, 1000, 2500};
+
+    private final Map<String, OperationStats> stats = new ConcurrentHashMap<>();
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+
+    public SqliteRetryPolicy(@Value("${sqlite.retry.max-attempts:6}") int maxAttempts,
+                             @Value("${sqlite.retry.base-delay-ms:25}") long baseDelayMillis,
+                             @Value("${sqlite.retry.max-delay-ms:1000}") long maxDelayMillis) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    /**
+     * 작업 실행. 잠금 오류면 백오프 후 호출 스레드에서 다시 실행하고, 최대 횟수를 넘으면 마지막 예외를 던진다.
+     */
+    public <T> T execute(String operation, Supplier<T> action) {
+        OperationStats operationStats = statsFor(operation);
+        operationStats.calls.increment();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                T value = action.get();
+                operationStats.successes.increment();
+                return value;
+            } catch (RuntimeException e) {
+                SQLiteErrorCode code = classify(e);
+                if (code == null || attempt >= maxAttempts) {
+                    if (code != null) {
+                        operationStats.exhausted.increment();
+                        System.err.println("[SqliteRetryPolicy] " + operation + " - " + attempt + "회 시도 후 잠금 해제 실패 (" + code.name() + ")");
+                    }
+                    operationStats.failures.increment();
+                    throw e;
+                }
+                long delay = nextDelayMillis(attempt);
+                operationStats.recordRetry(code, delay);
+                System.out.println("[SqliteRetryPolicy] " + operation + " - " + code.name() + ", " + delay + "ms 후 재시도 ("
+                        + (attempt + 1) + "/" + maxAttempts + ")");
+                backoff(delay, e);
+            }
+        }
+    }
+
+    public void run(String operation, Runnable action) {
+        execute(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * 재시도 대상 잠금 오류인지 판단. 대상이 아니면 null.
+     */
+    public SQLiteErrorCode classify(Throwable error) {
+        for (Throwable current = error; current != null; current = current.getCause()) {
+            if (current instanceof SQLiteException sqliteException) {
+                SQLiteErrorCode code = sqliteException.getResultCode();
+                return RETRYABLE_CODES.contains(code) ? code : null;
+            }
+            if (current instanceof SQLException sqlException) {
+                int primary = sqlException.getErrorCode() & 0xff;
+                if (primary == PRIMARY_BUSY) {
+                    return SQLiteErrorCode.SQLITE_BUSY;
+                }
+                if (primary == PRIMARY_LOCKED) {
+                    return SQLiteErrorCode.SQLITE_LOCKED;
+                }
+            }
+            if (current.getCause() == current) {
+                break;
+            }
+        }
+        return null;
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> operations = new TreeMap<>();
+        stats.forEach((operation, operationStats) -> operations.put(operation, operationStats.toMap()));
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("max_attempts", maxAttempts);
+        result.put("base_delay_ms", baseDelayMillis);
+        result.put("max_delay_ms", maxDelayMillis);
+        result.put("operations", operations);
+        return result;
+    }
+
+    // full jitter: [0, min(max, base * 2^(n-1))] 구간에서 무작위
+    private long nextDelayMillis(int retryNumber) {
+        long ceiling = Math.min(maxDelayMillis, baseDelayMillis << Math.min(retryNumber - 1, 20));
+        return ThreadLocalRandom.current().nextLong(Math.max(1, ceiling) + 1);
+    }
+
+    private void backoff(long delayMillis, RuntimeException cause) {
+        try {
+            Thread.sleep(delayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cause.addSuppressed(e);
+            throw cause;
+        }
+    }
+
+    private OperationStats statsFor(String operation) {
+        return stats.computeIfAbsent(operation, key -> new OperationStats());
+    }
+
+    private static final class OperationStats {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder successes = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder exhausted = new LongAdder();
+        private final AtomicLong totalWaitMillis = new AtomicLong();
+        private final LongAdder[] waitBuckets = new LongAdder[WAIT_BUCKETS_MS.length + 1];
+        private final Map<SQLiteErrorCode, LongAdder> retriesByCode = new ConcurrentHashMap<>();
+
+        private OperationStats() {
+            for (int i = 0; i < waitBuckets.length; i++) {
+                waitBuckets[i] = new LongAdder();
+            }
+        }
+
+        private void recordRetry(SQLiteErrorCode code, long delayMillis) {
+            retries.increment();
+            totalWaitMillis.addAndGet(delayMillis);
+            retriesByCode.computeIfAbsent(code, key -> new LongAdder()).increment();
+            int bucket = 0;
+            while (bucket < WAIT_BUCKETS_MS.length && delayMillis > WAIT_BUCKETS_MS[bucket]) {
+                bucket++;
+            }
+            waitBuckets[bucket].increment();
+        }
+
+        private Map<String, Object> toMap() {
+            Map<String, Object> histogram = new LinkedHashMap<>();
+            for (int i = 0; i < WAIT_BUCKETS_MS.length; i++) {
+                histogram.put("le_" + WAIT_BUCKETS_MS[i] + "ms", waitBuckets[i].sum());
+            }
+            histogram.put("gt_" + WAIT_BUCKETS_MS[WAIT_BUCKETS_MS.length - 1] + "ms", waitBuckets[WAIT_BUCKETS_MS.length].sum());
+
+            Map<String, Object> byCode = new TreeMap<>();
+            retriesByCode.forEach((code, count) -> byCode.put(code.name(), count.sum()));
+
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("calls", calls.sum());
+            map.put("successes", successes.sum());
+            map.put("failures", failures.sum());
+            map.put("retries", retries.sum());
+            map.put("exhausted", exhausted.sum());
+            map.put("total_wait_ms", totalWaitMillis.get());
+            map.put("retries_by_code", byCode);
+            map.put("wait_histogram", histogram);
+            return map;
+        }
+    }
+}
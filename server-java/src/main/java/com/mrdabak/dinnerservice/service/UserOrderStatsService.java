@@ -0,0 +1,84 @@
+package com.mrdabak.dinnerservice.service;
+
+import com.mrdabak.dinnerservice.model.UserOrderStats;
+import com.mrdabak.dinnerservice.repository.order.OrderRepository;
+import com.mrdabak.dinnerservice.repository.order.UserOrderStatsRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 사용자별 주문 통계 (orders.db의 user_order_stats 테이블)
+ * 배달 완료 주문 수를 주문 상태 변경과 같은 트랜잭션에서 증감해 두므로,
+ * 단골 할인 판단 시 주문 이력 전체를 읽지 않고 한 행만 조회한다.
+ */
+@Service
+public class UserOrderStatsService {
+
+    private static final String DELIVERED = "delivered";
+
+    private final UserOrderStatsRepository userOrderStatsRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate orderTransactionTemplate;
+
+    public UserOrderStatsService(UserOrderStatsRepository userOrderStatsRepository,
+                                 OrderRepository orderRepository,
+                                 @Qualifier("orderTransactionManager") PlatformTransactionManager orderTransactionManager) {
+        this.userOrderStatsRepository = userOrderStatsRepository;
+        this.orderRepository = orderRepository;
+        this.orderTransactionTemplate = new TransactionTemplate(orderTransactionManager);
+    }
+
+    public long getDeliveredCount(Long userId) {
+        return userOrderStatsRepository.findById(userId)
+                .map(UserOrderStats::getDeliveredCount)
+                .orElse(0);
+    }
+
+    /**
+     * 주문 상태 변경 반영. 호출자의 orders.db 트랜잭션에 참여한다.
+     */
+    public void recordStatusChange(Long userId, String previousStatus, String newStatus) {
+        boolean wasDelivered = DELIVERED.equalsIgnoreCase(previousStatus);
+        boolean isDelivered = DELIVERED.equalsIgnoreCase(newStatus);
+        if (userId == null || wasDelivered == isDelivered) {
+            return;
+        }
+        userOrderStatsRepository.addDelivered(userId, isDelivered ? 1 : -1, LocalDateTime.now());
+    }
+
+    /**
+     * 통계 테이블이 비어 있으면 기존 주문으로 한 번 채운다. (테이블 도입 이전 데이터)
+     * 요청을 받기 전에 끝나도록 빈 초기화 시점에 실행한다.
+     */
+    @PostConstruct
+    public void backfill() {
+        try {
+            if (userOrderStatsRepository.count() > 0) {
+                return;
+            }
+            Integer users = orderTransactionTemplate.execute(status -> {
+                List<Object[]> rows = orderRepository.countDeliveredByUser();
+                LocalDateTime now = LocalDateTime.now();
+                for (Object[] row : rows) {
+                    UserOrderStats stats = new UserOrderStats();
+                    stats.setUserId((Long) row[0]);
+                    stats.setDeliveredCount(((Number) row[1]).intValue());
+                    stats.setUpdatedAt(now);
+                    userOrderStatsRepository.save(stats);
+                }
+                return rows.size();
+            });
+            if (users != null && users > 0) {
+                System.out.println("[UserOrderStatsService] 기존 주문으로 사용자 " + users + "명의 배달 완료 수 초기화");
+            }
+        } catch (Exception e) {
+            System.err.println("[UserOrderStatsService] 주문 통계 초기화 실패: " + e.getMessage());
+        }
+    }
+}
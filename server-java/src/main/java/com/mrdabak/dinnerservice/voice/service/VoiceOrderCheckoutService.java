@@ -2,6 +2,7 @@ package com.mrdabak.dinnerservice.voice.service;
 
 import com.mrdabak.dinnerservice.dto.OrderRequest;
 import com.mrdabak.dinnerservice.model.Order;
+import com.mrdabak.dinnerservice.model.OrderChangeLog;
 import com.mrdabak.dinnerservice.repository.order.OrderRepository;
 import com.mrdabak.dinnerservice.service.OrderService;
 import com.mrdabak.dinnerservice.voice.VoiceOrderException;
@@ -31,11 +32,13 @@ public class VoiceOrderCheckoutService {
         }
         OrderRequest request = voiceOrderMapper.toOrderRequest(session);
         Order order = orderService.createOrder(session.getUserId(), request);
+        // 결제 열만 UPDATE - 전체 엔티티 저장은 그 사이 바뀐 주문 상태(재고 거절로 인한 취소 등)를 덮어씀
+        orderRepository.markPaid(order.getId(), "voice-bot-card");
+        OrderChangeLog.markChanged(order.getId(), order.getUserId());
         order.setPaymentStatus("paid");
         order.setPaymentMethod("voice-bot-card");
-        Order saved = orderRepository.save(order);
-        session.markOrderPlaced(saved.getId());
-        return saved;
+        session.markOrderPlaced(order.getId());
+        return order;
     }
 }
 
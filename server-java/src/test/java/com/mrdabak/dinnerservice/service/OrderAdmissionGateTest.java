@@ -0,0 +1,89 @@
+package com.mrdabak.dinnerservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * OrderAdmissionGate 동시성 테스트
+ * 서로 다른 고객의 주문은 동시에 진행되고, 같은 고객의 주문은 한 번에 하나씩만 진행되는지 확인한다.
+ */
+class OrderAdmissionGateTest {
+
+    private static final int THREADS = 8;
+    private static final int ORDERS_PER_THREAD = 10;
+    private static final long WORK_MILLIS = 20;
+
+    @Test
+    void differentUsersProceedInParallel() throws Exception {
+        OrderAdmissionGate gate = new OrderAdmissionGate(64);
+        Result result = run(gate, thread -> (long) (thread + 1));
+
+        // 8명의 주문이 실제로 겹쳐 실행되어야 함
+        assertTrue(result.maxConcurrent() > 1, "서로 다른 사용자의 주문이 동시에 진행되지 않았습니다: " + result);
+        // 전부 직렬이었다면 8 * 10 * 20ms = 1600ms 이상 걸림
+        long serialMillis = THREADS * ORDERS_PER_THREAD * WORK_MILLIS;
+        assertTrue(result.elapsedMillis() < serialMillis / 2, "병렬 처리 시간이 직렬에 가깝습니다: " + result);
+    }
+
+    @Test
+    void sameUserOrdersAreSerialized() throws Exception {
+        OrderAdmissionGate gate = new OrderAdmissionGate(64);
+        Result result = run(gate, thread -> 42L);
+
+        assertEquals(1, result.maxConcurrent(), "같은 사용자의 주문이 동시에 진행되었습니다: " + result);
+        assertEquals(THREADS * ORDERS_PER_THREAD, result.completed());
+    }
+
+    private Result run(OrderAdmissionGate gate, java.util.function.IntFunction<Long> userIdForThread) throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                Long userId = userIdForThread.apply(t);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                        gate.admit(userId, () -> {
+                            int now = running.incrementAndGet();
+                            maxConcurrent.accumulateAndGet(now, Math::max);
+                            try {
+                                Thread.sleep(WORK_MILLIS);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                            running.decrementAndGet();
+                            return completed.incrementAndGet();
+                        });
+                    }
+                    return null;
+                }));
+            }
+            long startedAt = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+            return new Result(maxConcurrent.get(), completed.get(), elapsedMillis);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private record Result(int maxConcurrent, int completed, long elapsedMillis) { }
+}